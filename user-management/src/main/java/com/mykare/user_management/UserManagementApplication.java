@@ -2,12 +2,19 @@ package com.mykare.user_management;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class UserManagementApplication {
 
+	// Enough for every bean and context step of one startup; later steps are dropped, not blocked
+	private static final int STARTUP_STEP_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(UserManagementApplication.class, args);
+		SpringApplication application = new SpringApplication(UserManagementApplication.class);
+		// Recorded steps are reported by StartupReport and served at /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,41 @@
+package com.mykare.user_management.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.mykare.user_management.repository.UserRepository;
+
+/**
+ * Fills {@code emailIdNormalized} for users saved before the column existed.
+ * New and updated rows get it from the entity callback, so this is a no-op once
+ * every row has been backfilled, and can be switched off with
+ * {@code annular.app.users.backfillNormalizedEmail} to save the startup query.
+ */
+@Component
+@ConditionalOnProperty(name = "annular.app.users.backfillNormalizedEmail", havingValue = "true", matchIfMissing = true)
+public class EmailNormalizationBackfill implements ApplicationRunner {
+
+	public static final Logger logger = LoggerFactory.getLogger(EmailNormalizationBackfill.class);
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		try {
+			int updated = userRepository.backfillEmailIdNormalized();
+			if (updated > 0) {
+				logger.info("Backfilled normalized email for {} users", updated);
+			}
+		} catch (DataIntegrityViolationException e) {
+			// Existing rows whose emails differ only in case or whitespace must be merged by hand
+			logger.error("Could not backfill normalized emails, duplicate addresses exist: {}", e.getMessage());
+		}
+	}
+}
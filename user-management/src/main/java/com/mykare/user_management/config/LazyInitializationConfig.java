@@ -0,0 +1,29 @@
+package com.mykare.user_management.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mykare.user_management.controller.ReactiveUserController;
+import com.mykare.user_management.controller.UserController;
+import com.mykare.user_management.service.serviceImpl.CountryEnrichmentService;
+import com.mykare.user_management.service.serviceImpl.PasswordHashingService;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on, as
+ * in the faststart profile. The controllers pull in everything on the register
+ * and login path. That way the first requests after a scale-out do not pay for
+ * BCrypt calibration, Hibernate bootstrap or loading the geo dataset. Beans
+ * that work in the background without being injected anywhere would otherwise
+ * never be created.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+	// Static so the filter is available to the bean factory post-processor that applies lazy init
+	@Bean
+	public static LazyInitializationExcludeFilter eagerRequestPathBeans() {
+		return LazyInitializationExcludeFilter.forBeanTypes(UserController.class, ReactiveUserController.class,
+				PasswordHashingService.class, CountryEnrichmentService.class, VirtualThreadPinningMonitor.class);
+	}
+}
@@ -0,0 +1,27 @@
+package com.mykare.user_management.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+
+/**
+ * Serves the reactive profile from Netty. Tomcat is on the classpath for the
+ * servlet stack, and Boot would otherwise run WebFlux on it through the
+ * servlet adapter, which is not the event-loop model being compared.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+			ObjectProvider<ReactorResourceFactory> resourceFactory) {
+		NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+		// Share event loops with WebClient, as Boot's own Netty configuration does
+		resourceFactory.ifAvailable(factory::setResourceFactory);
+		return factory;
+	}
+}
@@ -0,0 +1,94 @@
+package com.mykare.user_management.config;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes where startup time went, from the steps recorded by the
+ * {@link BufferingApplicationStartup} set up in {@code main}. Once the
+ * application is ready, every step is recorded in
+ * {@code application.startup.step{step}} and the slowest single steps, usually
+ * individual bean instantiations, are logged. The full timeline stays
+ * available at {@code /actuator/startup} where that endpoint is exposed.
+ *
+ * Step durations include nested steps, so a bean's time includes creating its
+ * dependencies.
+ *
+ * With {@code annular.app.startup.exitAfterReady} the JVM exits once the
+ * report is written, which ends the AppCDS training run of the faststart build.
+ */
+@Component
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+
+	public static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${annular.app.startup.reportTopSteps:10}")
+	private int reportTopSteps;
+
+	@Value("${annular.app.startup.exitAfterReady:false}")
+	private boolean exitAfterReady;
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		ConfigurableApplicationContext context = event.getApplicationContext();
+		ApplicationStartup applicationStartup = context.getApplicationStartup();
+		if (applicationStartup instanceof BufferingApplicationStartup) {
+			// A snapshot; draining is left to the actuator endpoint
+			StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline();
+			logger.info("Ready in {} ms; slowest startup steps:\n{}", event.getTimeTaken().toMillis(), report(timeline));
+		}
+		if (exitAfterReady) {
+			logger.info("Exiting after startup (annular.app.startup.exitAfterReady)");
+			System.exit(SpringApplication.exit(context));
+		}
+	}
+
+	/**
+	 * Records every step in the step timer and returns the slowest ones, one per
+	 * line.
+	 */
+	String report(StartupTimeline timeline) {
+		List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+		for (StartupTimeline.TimelineEvent event : events) {
+			Timer.builder("application.startup.step")
+					.description("Duration of application startup steps, including nested steps")
+					.tag("step", event.getStartupStep().getName())
+					.register(meterRegistry)
+					.record(event.getDuration());
+		}
+		return events.stream()
+				.sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+				.limit(reportTopSteps)
+				.map(event -> String.format("%8d ms  %s", event.getDuration().toMillis(), describe(event.getStartupStep())))
+				.collect(Collectors.joining("\n"));
+	}
+
+	private static String describe(StartupStep step) {
+		StringBuilder description = new StringBuilder(step.getName());
+		for (StartupStep.Tag tag : step.getTags()) {
+			description.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+		}
+		return description.toString();
+	}
+}
@@ -0,0 +1,54 @@
+package com.mykare.user_management.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mykare.user_management.model.User;
+
+/**
+ * Moves {@code users_seq} past the highest existing user id. Databases created
+ * while ids came from an IDENTITY column get a fresh sequence starting at 1,
+ * which would otherwise hand out ids that are already taken.
+ *
+ * This is a one-off migration, off unless {@code annular.app.users.alignIdSequence}
+ * is set. Even then the sequence is only restarted while it is behind, so a
+ * restart does not burn an id block. Do not enable it where several instances
+ * share the sequence: two instances aligning at once could hand out the same block.
+ */
+@Component
+@ConditionalOnProperty(name = "annular.app.users.alignIdSequence", havingValue = "true")
+public class UserIdSequenceInitializer implements ApplicationRunner {
+
+	public static final Logger logger = LoggerFactory.getLogger(UserIdSequenceInitializer.class);
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	// Next value the sequence will return, without consuming it; the catalog query differs per database
+	@Value("${annular.app.users.idSequenceNextValueSql:select base_value from information_schema.sequences where lower(sequence_name) = 'users_seq'}")
+	private String nextValueSql;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Integer maxId = jdbcTemplate.queryForObject("select max(id) from users", Integer.class);
+		if (maxId == null) {
+			return;
+		}
+		// The pooled optimizer hands out (value - allocationSize, value] for each value it draws
+		Long nextValue = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+		if (nextValue != null && nextValue - User.ID_ALLOCATION_SIZE >= maxId) {
+			logger.debug("users_seq at {} is already past max id {}", nextValue, maxId);
+			return;
+		}
+		long restartWith = (long) maxId + User.ID_ALLOCATION_SIZE + 1;
+		jdbcTemplate.execute("alter sequence users_seq restart with " + restartWith);
+		logger.info("Aligned users_seq to {} above existing max id {}", restartWith, maxId);
+	}
+}
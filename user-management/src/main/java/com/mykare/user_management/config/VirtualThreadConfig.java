@@ -0,0 +1,25 @@
+package com.mykare.user_management.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs every servlet request on its own virtual thread instead of Tomcat's
+ * bounded worker pool, so requests blocked on JDBC or outbound HTTP no longer
+ * hold a platform thread. {@code server.tomcat.threads.max} stops limiting
+ * concurrency in this mode; the Hikari pool and the password hashing queue
+ * still do.
+ */
+@Configuration
+@ConditionalOnProperty(name = "annular.app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+	}
+}
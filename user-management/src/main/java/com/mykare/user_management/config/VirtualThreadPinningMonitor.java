@@ -0,0 +1,94 @@
+package com.mykare.user_management.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.mykare.user_management.logging.LogMarkers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically by
+ * blocking inside a {@code synchronized} block or a native frame. Each pin
+ * longer than {@code annular.app.threads.pinnedThresholdMs} is recorded in
+ * {@code jvm.threads.virtual.pinned{site}}, where the site is the innermost
+ * application frame of the pinned stack, and logged with its stack.
+ */
+@Component
+@ConditionalOnProperty(name = "annular.app.threads.virtual", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+	public static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${annular.app.threads.pinnedThresholdMs:20}")
+	private long pinnedThresholdMs;
+
+	private RecordingStream recordingStream;
+
+	@PostConstruct
+	public void start() {
+		recordingStream = new RecordingStream();
+		recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(pinnedThresholdMs)).withStackTrace();
+		recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+		recordingStream.startAsync();
+	}
+
+	@PreDestroy
+	public void stop() {
+		recordingStream.close();
+	}
+
+	private void onPinned(RecordedEvent event) {
+		String site = pinnedSite(event.getStackTrace());
+		Timer.builder("jvm.threads.virtual.pinned")
+				.description("Time a virtual thread blocked while pinned to its carrier")
+				.tag("site", site)
+				.register(meterRegistry)
+				.record(event.getDuration());
+		if (logger.isInfoEnabled()) {
+			logger.info(LogMarkers.HOT_PATH, "Virtual thread pinned for {} ms at {}\n{}",
+					event.getDuration().toMillis(), site, event.getStackTrace());
+		}
+	}
+
+	/**
+	 * Returns the first frame outside the JDK, which is where the blocking
+	 * monitor or native call was entered from.
+	 */
+	static String pinnedSite(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return "unknown";
+		}
+		List<RecordedFrame> frames = stackTrace.getFrames();
+		for (RecordedFrame frame : frames) {
+			if (!frame.isJavaFrame()) {
+				continue;
+			}
+			String type = frame.getMethod().getType().getName();
+			if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+				return type + "." + frame.getMethod().getName();
+			}
+		}
+		return "jdk";
+	}
+}
@@ -0,0 +1,120 @@
+package com.mykare.user_management.controller;
+
+import java.net.InetSocketAddress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mykare.user_management.Response;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.service.ReactiveUserService;
+import com.mykare.user_management.service.serviceImpl.PasswordHashingService;
+import com.mykare.user_management.webModel.UserWebModel;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UserController} for the reactive profile, on the same paths so load
+ * tests can run unchanged against either stack. Only register, login,
+ * getAllUsers and deleteUser are served. {@code /user/getAllUsers} streams
+ * newline-delimited JSON rows instead of one {@link Response} document.
+ */
+@SecurityRequirement(name = "BearerAuth")
+@RestController
+@RequestMapping("/user")
+@Profile("reactive")
+public class ReactiveUserController {
+
+	public static final Logger logger = LoggerFactory.getLogger(ReactiveUserController.class);
+
+	@Autowired
+	ReactiveUserService userService;
+
+	@PostMapping("register")
+	@Operation(summary = "Register a new user")
+	public Mono<ResponseEntity<?>> userRegister(@RequestBody UserWebModel userWebModel, ServerHttpRequest request) {
+		logger.info("User register controller start");
+		// Loopback addresses are resolved to the public address during country enrichment
+		return userService.register(userWebModel, remoteAddress(request))
+				.onErrorResume(PasswordHashingService.SaturatedException.class, e -> {
+					logger.warn("userRegister rejected, password hashing is saturated");
+					return Mono.just(serviceBusy(e));
+				})
+				.onErrorResume(e -> {
+					logger.error("userRegister Method Exception {}", e.getMessage(), e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+							.body(new Response(-1, "Fail", e.getMessage())));
+				});
+	}
+
+	@PostMapping("login")
+	@Operation(summary = "User login and token generation")
+	public Mono<ResponseEntity<?>> login(@RequestBody UserWebModel userWebModel, ServerHttpRequest request) {
+		return Mono.defer(() -> userService.login(userWebModel, remoteAddress(request)))
+				.onErrorResume(PasswordHashingService.SaturatedException.class, e -> {
+					logger.warn("Login rejected, password hashing is saturated");
+					return Mono.just(serviceBusy(e));
+				})
+				.onErrorResume(e -> {
+					logger.error("Error at login() -> {}", e.getMessage(), e);
+					return Mono.just(ResponseEntity.internalServerError()
+							.body(new Response(-1, "Fail", "An error occurred during login")));
+				});
+	}
+
+	@DeleteMapping("/deleteUser/{userId}")
+	@Operation(summary = "Delete a user by ID")
+	public Mono<ResponseEntity<?>> deleteUserDetails(@PathVariable("userId") Integer userId,
+	                                                 @Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser) {
+		logger.info("Received request to delete user with userId: {}", userId);
+		return userService.deleteUserDetails(userId, requestingUser)
+				.onErrorResume(e -> {
+					logger.error("Exception in deleteUserDetails: {}", e.getMessage(), e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+							.body(new Response(-1, "Fail", "An error occurred while deleting the user.")));
+				});
+	}
+
+	@GetMapping(value = "/getAllUsers", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	@Operation(summary = "Stream all registered users")
+	public Mono<ResponseEntity<?>> getAllUsers(@Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser) {
+		logger.info("Received request to fetch all users from user: {}", requestingUser.getId());
+		// Errors after the first row can only end the stream; this covers failures before it starts
+		return userService.getAllUsers(requestingUser)
+				.onErrorResume(e -> {
+					logger.error("Exception in getAllUsers: {}", e.getMessage(), e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+							.body(new Response(-1, "Fail", "An error occurred while fetching users.")));
+				});
+	}
+
+	private static String remoteAddress(ServerHttpRequest request) {
+		InetSocketAddress remoteAddress = request.getRemoteAddress();
+		return remoteAddress != null && remoteAddress.getAddress() != null
+				? remoteAddress.getAddress().getHostAddress() : null;
+	}
+
+	private static ResponseEntity<?> serviceBusy(PasswordHashingService.SaturatedException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+				.body(new Response(-1, "Fail", "Server is busy, please retry shortly."));
+	}
+}
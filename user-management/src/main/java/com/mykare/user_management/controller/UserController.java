@@ -1,18 +1,27 @@
 package com.mykare.user_management.controller;
 
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,21 +33,32 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mykare.user_management.Response;
+import com.mykare.user_management.logging.LogMarkers;
 import com.mykare.user_management.model.User;
 import com.mykare.user_management.repository.UserRepository;
 import com.mykare.user_management.security.UserDetailsImpl;
 import com.mykare.user_management.security.jwt.JwtResponse;
 import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.RefreshTokenStore;
+import com.mykare.user_management.security.throttle.LoginThrottle;
 import com.mykare.user_management.service.UserService;
-import com.mykare.user_management.service.serviceImpl.LocationService;
+import com.mykare.user_management.service.serviceImpl.PasswordHashingService;
+import com.mykare.user_management.service.serviceImpl.UserExportService;
+import com.mykare.user_management.service.serviceImpl.UserImportService;
+import com.mykare.user_management.util.LogSummaries;
+import com.mykare.user_management.webModel.ImportReport;
+import com.mykare.user_management.webModel.RefreshTokenRequest;
 import com.mykare.user_management.webModel.UserWebModel;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 @SecurityRequirement(name = "BearerAuth")
 @RestController
 @RequestMapping("/user")
+@Profile("!reactive")
 public class UserController {
 
 	public static final Logger logger = LoggerFactory.getLogger(UserController.class);
@@ -54,20 +74,33 @@ public class UserController {
 
 	@Autowired
 	UserRepository userRepository;
-	
-    @Autowired
-    private LocationService locationService;
+
+	@Autowired
+	UserExportService userExportService;
+
+	@Autowired
+	UserImportService userImportService;
+
+	@Autowired
+	LoginThrottle loginThrottle;
+
+	@Autowired
+	RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	MeterRegistry meterRegistry;
 
 	@PostMapping("register")
 	@Operation(summary = "Register a new user")
 	public ResponseEntity<?> userRegister(@RequestBody UserWebModel userWebModel,HttpServletRequest request) {
 		try {
 			logger.info("User register controller start");
-			 String ipAddress = request.getRemoteAddr();
-		        if ("0:0:0:0:0:0:0:1".equals(ipAddress) || "127.0.0.1".equals(ipAddress)) {
-		            ipAddress = locationService.getIpAddress();
-		        }
+			// Loopback addresses are resolved to the public address during country enrichment
+			String ipAddress = request.getRemoteAddr();
 			return userService.register(userWebModel,ipAddress);
+		} catch (PasswordHashingService.SaturatedException e) {
+			logger.warn("userRegister rejected, password hashing is saturated");
+			return serviceBusy(e);
 		} catch (Exception e) {
 			logger.error("userRegister Method Exception {}" + e);
 			e.printStackTrace();
@@ -78,8 +111,19 @@ public class UserController {
 	}
 	@PostMapping("login")
 	@Operation(summary = "User login and token generation")
-	public ResponseEntity<?> login(@RequestBody UserWebModel userWebModel) {
+	public ResponseEntity<?> login(@RequestBody UserWebModel userWebModel, HttpServletRequest request) {
 		try {
+			// Rejected before the user lookup and the BCrypt compare
+			long retryAfterSeconds = loginThrottle.tryAcquire(userWebModel.getEmailId(), request.getRemoteAddr());
+			if (retryAfterSeconds > 0) {
+				// Counted in login.throttle.rejected; the log line is only a sample
+				logger.info(LogMarkers.HOT_PATH, "Login throttled for {} from {}", userWebModel.getEmailId(),
+						request.getRemoteAddr());
+				return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+						.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+						.body(new Response(-1, "Fail", "Too many login attempts, please retry later."));
+			}
+
 			Optional<User> checkUser = userRepository.findByEmailId(userWebModel.getEmailId());
 
 			if (checkUser.isPresent()) {
@@ -96,17 +140,24 @@ public class UserController {
 				String jwt = jwtUtils.generateJwtToken(authentication);
 				UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-				logger.info("Login successful for user: {}", user.getEmailId());
+				logger.info(LogMarkers.HOT_PATH, "Login successful for user: {}", user.getEmailId());
 
 				// Return response with JWT and refresh token
-				return ResponseEntity.ok(new JwtResponse(jwt, userDetails.getId(), 1 ));
+				String refreshToken = refreshTokenStore.issue(userDetails.getId());
+				return ResponseEntity.ok(new JwtResponse(jwt, userDetails.getId(), 1, refreshToken));
 			} else {
+				meterRegistry.counter("user.login.failed", "cause", "unknown_email").increment();
 				return ResponseEntity.badRequest().body(new Response(-1, "Fail", "Invalid email or password"));
 			}
 		} catch (BadCredentialsException e) {
-			logger.error("Login failed: Invalid credentials");
+			meterRegistry.counter("user.login.failed", "cause", "bad_credentials").increment();
+			logger.info(LogMarkers.HOT_PATH, "Login failed: Invalid credentials");
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
 					.body(new Response(-1, "Fail", "Invalid email or password"));
+		} catch (PasswordHashingService.SaturatedException e) {
+			meterRegistry.counter("user.login.failed", "cause", "busy").increment();
+			logger.warn("Login rejected, password hashing is saturated");
+			return serviceBusy(e);
 		} catch (Exception e) {
 			logger.error("Error at login() -> {}", e.getMessage(), e);
 			return ResponseEntity.internalServerError()
@@ -114,17 +165,44 @@ public class UserController {
 		}
 	}
 	
+	@PostMapping("refreshToken")
+	@Operation(summary = "Exchange a refresh token for a new access token and refresh token")
+	public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+		try {
+			return userService.refreshToken(refreshTokenRequest.getRefreshToken());
+		} catch (Exception e) {
+			logger.error("Error at refreshToken() -> {}", e.getMessage(), e);
+			return ResponseEntity.internalServerError()
+					.body(new Response(-1, "Fail", "An error occurred while refreshing the token"));
+		}
+	}
+
+	@PostMapping("logout")
+	@Operation(summary = "Revoke the current access token and, if given, the refresh token")
+	public ResponseEntity<?> logout(@RequestBody(required = false) RefreshTokenRequest refreshTokenRequest,
+			HttpServletRequest request) {
+		try {
+			String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+			String jwt = headerAuth != null && headerAuth.startsWith("Bearer ") ? headerAuth.substring(7) : null;
+			return userService.logout(jwt, refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null);
+		} catch (Exception e) {
+			logger.error("Error at logout() -> {}", e.getMessage(), e);
+			return ResponseEntity.internalServerError()
+					.body(new Response(-1, "Fail", "An error occurred during logout"));
+		}
+	}
+
 	@DeleteMapping("/deleteUser/{userId}")
 	@Operation(summary = "Delete a user by ID")
 	public ResponseEntity<?> deleteUserDetails(@PathVariable("userId") Integer userId, 
-	                                          @RequestParam("requestingUserEmail") String requestingUserEmail) {
+	                                          @Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser) {
 	    try {
 	        logger.info("Received request to delete user with userId: {}", userId);
 	        
 	        // Call service layer
-	        ResponseEntity<?> response = userService.deleteUserDetails(userId, requestingUserEmail);
+	        ResponseEntity<?> response = userService.deleteUserDetails(userId, requestingUser);
 
-	        logger.info("User deletion response: {}", response.getBody());
+	        logger.info("User deletion response: {}", LogSummaries.summarize(response.getBody()));
 	        return response;
 	    } catch (Exception e) {
 	        logger.error("Exception in deleteUserDetails: {}", e.getMessage(), e);
@@ -135,14 +213,14 @@ public class UserController {
 
 	@GetMapping("/getAllUsers")
 	@Operation(summary = "Get all registered users")
-	public ResponseEntity<?> getAllUsers(@RequestParam("requestingUserEmail") String requestingUserEmail) {
+	public ResponseEntity<?> getAllUsers(@Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser) {
 	    try {
-	        logger.info("Received request to fetch all users from: {}", requestingUserEmail);
+	        logger.info("Received request to fetch all users from user: {}", requestingUser.getId());
 
 	        // Call service layer
-	        ResponseEntity<?> response = userService.getAllUsers(requestingUserEmail);
+	        ResponseEntity<?> response = userService.getAllUsers(requestingUser);
 
-	        logger.info("Get all users response: {}", response.getBody());
+	        logger.info("Get all users response: {}", LogSummaries.summarize(response.getBody()));
 	        return response;
 	    } catch (Exception e) {
 	        logger.error("Exception in getAllUsers: {}", e.getMessage(), e);
@@ -151,6 +229,130 @@ public class UserController {
 	    }
 	}
 
+	@GetMapping("/users")
+	@Operation(summary = "Get registered users one page at a time")
+	public ResponseEntity<?> getUsersPage(@Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser,
+	                                      @RequestParam(value = "cursor", required = false) Integer cursor,
+	                                      @RequestParam(value = "limit", required = false) Integer limit,
+	                                      @RequestParam(value = "userType", required = false) String userType,
+	                                      @RequestParam(value = "country", required = false) String country,
+	                                      @RequestParam(value = "createdFrom", required = false)
+	                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdFrom,
+	                                      @RequestParam(value = "createdTo", required = false)
+	                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdTo) {
+	    try {
+	        logger.info("Received request to fetch users after cursor {} from user: {}", cursor, requestingUser.getId());
+
+	        return userService.getUsersPage(requestingUser, cursor, limit, userType, country, createdFrom,
+	                createdTo);
+	    } catch (Exception e) {
+	        logger.error("Exception in getUsersPage: {}", e.getMessage(), e);
+	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+	                .body(new Response(-1, "Fail", "An error occurred while fetching users."));
+	    }
+	}
+
+	@GetMapping("/search")
+	@Operation(summary = "Search users by name or email prefix or substring, best matches first")
+	public ResponseEntity<?> searchUsers(@Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser,
+	                                     @RequestParam(value = "q") String query,
+	                                     @RequestParam(value = "offset", required = false) Integer offset,
+	                                     @RequestParam(value = "limit", required = false) Integer limit) {
+	    try {
+	        logger.info("Received request to search users at offset {} from user: {}", offset, requestingUser.getId());
+
+	        return userService.searchUsers(requestingUser, query, offset, limit);
+	    } catch (Exception e) {
+	        logger.error("Exception in searchUsers: {}", e.getMessage(), e);
+	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+	                .body(new Response(-1, "Fail", "An error occurred while searching users."));
+	    }
+	}
+
+	@GetMapping("/export")
+	@Operation(summary = "Stream all users as NDJSON or CSV")
+	public ResponseEntity<?> exportUsers(@Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser,
+	                                     @RequestParam(value = "format", defaultValue = "ndjson") String format,
+	                                     @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+	                                     HttpServletResponse response) {
+	    try {
+	        logger.info("Received request to export users as {} from user: {}", format, requestingUser.getId());
+
+	        UserExportService.Format exportFormat;
+	        try {
+	            exportFormat = UserExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().body(new Response(0, "Fail", "Unsupported export format: " + format));
+	        }
+
+	        if (!requestingUser.isAdmin()) {
+	            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+	                    .body(new Response(0, "Fail", "Access denied. Only admin users can export users."));
+	        }
+
+	        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+	        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+	                "attachment; filename=\"users." + exportFormat.getExtension() + "\"");
+	        if (gzip) {
+	            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+	        }
+
+	        // Rows go straight to the servlet stream; returning null tells Spring the response is handled
+	        OutputStream out = response.getOutputStream();
+	        if (gzip) {
+	            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+	            userExportService.export(exportFormat, gzipOut);
+	            gzipOut.finish();
+	        } else {
+	            userExportService.export(exportFormat, out);
+	        }
+	        out.flush();
+	        return null;
+	    } catch (Exception e) {
+	        logger.error("Exception in exportUsers: {}", e.getMessage(), e);
+	        if (response.isCommitted()) {
+	            // Part of the export has been sent; the client sees a truncated body
+	            return null;
+	        }
+	        response.reset();
+	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+	                .body(new Response(-1, "Fail", "An error occurred while exporting users."));
+	    }
+	}
+
+	@PostMapping("/import")
+	@Operation(summary = "Create users in bulk from a JSON array, NDJSON or CSV body")
+	public ResponseEntity<?> importUsers(@Parameter(hidden = true) @AuthenticationPrincipal UserDetailsImpl requestingUser,
+	                                     HttpServletRequest request) {
+	    try {
+	        logger.info("Received request to import users from user: {}", requestingUser.getId());
+
+	        if (!requestingUser.isAdmin()) {
+	            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+	                    .body(new Response(0, "Fail", "Access denied. Only admin users can import users."));
+	        }
+
+	        // The body is read as a stream rather than bound, so large uploads are never held in memory
+	        String contentType = request.getContentType();
+	        UserImportService.Format format = contentType != null && contentType.toLowerCase(Locale.ROOT).contains("csv")
+	                ? UserImportService.Format.CSV
+	                : UserImportService.Format.JSON;
+	        ImportReport report = userImportService.importUsers(format, request.getInputStream());
+
+	        return ResponseEntity.ok(new Response(1, "Success", report));
+	    } catch (Exception e) {
+	        logger.error("Exception in importUsers: {}", e.getMessage(), e);
+	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+	                .body(new Response(-1, "Fail", "An error occurred while importing users."));
+	    }
+	}
+
+	private static ResponseEntity<?> serviceBusy(PasswordHashingService.SaturatedException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+				.body(new Response(-1, "Fail", "Server is busy, please retry shortly."));
+	}
+
 
 
 }
@@ -0,0 +1,104 @@
+package com.mykare.user_management.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Lets at most {@code eventsPerSecond} events marked {@link LogMarkers#HOT_PATH}
+ * through per logger and second, and drops the rest before a log event is even
+ * created. Unmarked events, WARN and above, and {@code isXxxEnabled()} checks are
+ * never affected. When a logger had events dropped, the first event of its next
+ * window is preceded by a line with the number suppressed.
+ *
+ * Registered in {@code logback-spring.xml}; the limit comes from
+ * {@code annular.app.logging.hotPathPerSecond}.
+ */
+public class HotPathRateLimitFilter extends TurboFilter {
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+
+    private int eventsPerSecond = 20;
+
+    public HotPathRateLimitFilter() {
+        this(System::currentTimeMillis);
+    }
+
+    HotPathRateLimitFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public int getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || marker == null || !marker.contains(LogMarkers.HOT_PATH)
+                || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        long suppressed = window.tryAcquire(clock.getAsLong() / 1000, eventsPerSecond);
+        if (suppressed < 0) {
+            return FilterReply.DENY;
+        }
+        if (suppressed > 0) {
+            // Unmarked, so this passes straight through the filter
+            logger.info("Suppressed {} hot-path log events", suppressed);
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    @Override
+    public void stop() {
+        windows.clear();
+        super.stop();
+    }
+
+    /**
+     * One-second window packed into a single word: the epoch second in the high
+     * 32 bits and the number of events let through in the low 32.
+     */
+    private static final class Window {
+
+        private final AtomicLong state = new AtomicLong();
+
+        private final AtomicLong suppressed = new AtomicLong();
+
+        /**
+         * Returns -1 when the event must be dropped, otherwise the number of
+         * events dropped since the previous window (usually 0).
+         */
+        long tryAcquire(long second, int limit) {
+            while (true) {
+                long current = state.get();
+                if (current >>> 32 != second) {
+                    if (state.compareAndSet(current, second << 32 | 1)) {
+                        return suppressed.getAndSet(0);
+                    }
+                } else if ((int) current >= limit) {
+                    suppressed.incrementAndGet();
+                    return -1;
+                } else if (state.compareAndSet(current, current + 1)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mykare.user_management.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers understood by the logging configuration in {@code logback-spring.xml}.
+ */
+public final class LogMarkers {
+
+    /**
+     * Per-request events on busy paths (filters, login, principal loading). They
+     * are rate-limited per logger by {@link HotPathRateLimitFilter}, so a burst of
+     * traffic cannot turn logging into the bottleneck.
+     */
+    public static final Marker HOT_PATH = MarkerFactory.getMarker("HOT_PATH");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,61 @@
+package com.mykare.user_management.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Persistent copy of an issued refresh token, so tokens survive a restart and
+ * can be redeemed on any instance. Only the SHA-256 of the token is stored.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+		@Index(name = "idx_refresh_tokens_user_id", columnList = "userId"),
+		@Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt") })
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshToken implements Persistable<String> {
+
+	// Base64url SHA-256 of the opaque token, without padding
+	@Id
+	@Column(name = "tokenHash", length = 43)
+	private String tokenHash;
+
+	@Column(name = "userId", nullable = false)
+	private Integer userId;
+
+	@Column(name = "expiresAt", nullable = false)
+	private Date expiresAt;
+
+	@CreationTimestamp
+	@Column(name = "createdOn")
+	private Date createdOn;
+
+	@Override
+	public String getId() {
+		return tokenHash;
+	}
+
+	// Tokens are only ever inserted and deleted, so save() can persist without a select first
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
@@ -3,16 +3,26 @@ package com.mykare.user_management.model;
 
 import java.util.Date;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mykare.user_management.util.EmailAddresses;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,7 +32,12 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
+@Table(name = "users", indexes = {
+		@Index(name = "idx_users_user_type_id", columnList = "userType, id"),
+		@Index(name = "idx_users_country_id", columnList = "country, id") })
 @Builder
 @Getter
 @Setter
@@ -31,14 +46,24 @@ import lombok.ToString;
 @NoArgsConstructor
 public class User {
 
+	public static final int ID_ALLOCATION_SIZE = 50;
+
+	// Pooled sequence rather than IDENTITY so Hibernate can batch inserts
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+	@SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = User.ID_ALLOCATION_SIZE)
 	@Column(name = "id")
 	private Integer userId;
 
 	@Column(name = "emailId")
 	private String emailId;
 
+	// Trimmed, lower-cased emailId; the natural id gives it a unique constraint and a cached lookup
+	@JsonIgnore
+	@NaturalId(mutable = true)
+	@Column(name = "emailIdNormalized")
+	private String emailIdNormalized;
+
 	@JsonIgnore
 	@Column(name = "password")
 	private String password;
@@ -75,6 +100,15 @@ public class User {
 	@Column(name = "country")
     private String country;
 
+	@Column(name = "tokenVersion")
+	private Integer tokenVersion;
+
+	@PrePersist
+	@PreUpdate
+	void normalizeEmailId() {
+		emailIdNormalized = EmailAddresses.normalize(emailId);
+	}
+
 	
 
 }
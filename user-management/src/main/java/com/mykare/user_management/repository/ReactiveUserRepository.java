@@ -0,0 +1,204 @@
+package com.mykare.user_management.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.webModel.UserSummary;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the {@code users} table for the reactive profile,
+ * written against the schema Hibernate maintains for {@link User}.
+ *
+ * These statements bypass Hibernate's second-level cache, so the servlet and
+ * reactive stacks should not serve the same database at the same time.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+	private static final String SUMMARY_COLUMNS = "id, email_id, user_name, gender, user_type, country, "
+			+ "user_is_active, user_created_on";
+
+	private final DatabaseClient databaseClient;
+
+	// Dialect-specific; H2 and PostgreSQL spell nextval differently
+	@Value("${annular.app.reactive.nextIdSql:select nextval('users_seq')}")
+	private String nextIdSql;
+
+	public ReactiveUserRepository(ConnectionFactory connectionFactory) {
+		this.databaseClient = DatabaseClient.create(connectionFactory);
+	}
+
+	/**
+	 * Inserts the user and returns the new id. Each insert takes a whole value of
+	 * {@code users_seq}. Hibernate's pooled optimizer only hands out ids up to the
+	 * values it drew itself, so these ids never collide with JPA inserts.
+	 */
+	public Mono<Integer> insert(User user) {
+		return databaseClient.sql(nextIdSql)
+				.map(row -> row.get(0, Long.class).intValue())
+				.one()
+				.flatMap(id -> {
+					LocalDateTime now = LocalDateTime.now();
+					DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("insert into users (id, email_id, "
+							+ "email_id_normalized, password, user_name, gender, user_type, ip_address, token_version, "
+							+ "user_created_on, user_updated_on) values (:id, :emailId, :emailIdNormalized, :password, "
+							+ ":userName, :gender, :userType, :ipAddress, :tokenVersion, :createdOn, :updatedOn)")
+							.bind("id", id);
+					spec = bindNullable(spec, "emailId", user.getEmailId(), String.class);
+					spec = bindNullable(spec, "emailIdNormalized", user.getEmailIdNormalized(), String.class);
+					spec = bindNullable(spec, "password", user.getPassword(), String.class);
+					spec = bindNullable(spec, "userName", user.getUserName(), String.class);
+					spec = bindNullable(spec, "gender", user.getGender(), String.class);
+					spec = bindNullable(spec, "userType", user.getUserType(), String.class);
+					spec = bindNullable(spec, "ipAddress", user.getIpAddress(), String.class);
+					return spec.bind("tokenVersion", user.getTokenVersion() != null ? user.getTokenVersion() : 0)
+							.bind("createdOn", now)
+							.bind("updatedOn", now)
+							.then()
+							.thenReturn(id);
+				});
+	}
+
+	/** Lookup by the {@code emailIdNormalized} natural id, including the password hash. */
+	public Mono<User> findByEmailIdNormalized(String emailIdNormalized) {
+		return databaseClient.sql("select id, email_id, password, user_name, user_type, token_version from users "
+				+ "where email_id_normalized = :emailIdNormalized")
+				.bind("emailIdNormalized", emailIdNormalized)
+				.map((row, metadata) -> {
+					User user = new User();
+					user.setUserId(row.get("id", Integer.class));
+					user.setEmailId(row.get("email_id", String.class));
+					user.setPassword(row.get("password", String.class));
+					user.setUserName(row.get("user_name", String.class));
+					user.setUserType(row.get("user_type", String.class));
+					user.setTokenVersion(row.get("token_version", Integer.class));
+					return user;
+				})
+				.one();
+	}
+
+	/**
+	 * Every user in id order. Rows are read from the driver as the subscriber
+	 * requests them, so a slow client slows the query instead of filling the heap.
+	 */
+	public Flux<UserSummary> findAllSummaries() {
+		return databaseClient.sql("select " + SUMMARY_COLUMNS + " from users order by id")
+				.map((row, metadata) -> (UserSummary) new SummaryRow(row))
+				.all();
+	}
+
+	public Mono<Integer> deleteById(Integer userId) {
+		return databaseClient.sql("delete from users where id = :id")
+				.bind("id", userId)
+				.fetch()
+				.rowsUpdated();
+	}
+
+	/** Refresh tokens are issued by the servlet stack; this only removes them. */
+	public Mono<Integer> deleteRefreshTokens(Integer userId) {
+		return databaseClient.sql("delete from refresh_tokens where user_id = :userId")
+				.bind("userId", userId)
+				.fetch()
+				.rowsUpdated();
+	}
+
+	public Mono<Integer> updateLocation(Integer userId, String ipAddress, String country) {
+		DatabaseClient.GenericExecuteSpec spec = databaseClient
+				.sql("update users set ip_address = :ipAddress, country = :country where id = :id")
+				.bind("id", userId);
+		spec = bindNullable(spec, "ipAddress", ipAddress, String.class);
+		spec = bindNullable(spec, "country", country, String.class);
+		return spec.fetch().rowsUpdated();
+	}
+
+	public Mono<Integer> updatePassword(Integer userId, String password) {
+		return databaseClient.sql("update users set password = :password where id = :id")
+				.bind("id", userId)
+				.bind("password", password)
+				.fetch()
+				.rowsUpdated();
+	}
+
+	private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name,
+			Object value, Class<?> type) {
+		return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+	}
+
+	/** Values copied out of the row, which is only valid inside the mapping function. */
+	private static final class SummaryRow implements UserSummary {
+
+		private final Integer userId;
+		private final String emailId;
+		private final String userName;
+		private final String gender;
+		private final String userType;
+		private final String country;
+		private final Boolean userIsActive;
+		private final Date userCreatedOn;
+
+		private SummaryRow(Row row) {
+			userId = row.get("id", Integer.class);
+			emailId = row.get("email_id", String.class);
+			userName = row.get("user_name", String.class);
+			gender = row.get("gender", String.class);
+			userType = row.get("user_type", String.class);
+			country = row.get("country", String.class);
+			userIsActive = row.get("user_is_active", Boolean.class);
+			LocalDateTime createdOn = row.get("user_created_on", LocalDateTime.class);
+			userCreatedOn = createdOn != null ? Timestamp.valueOf(createdOn) : null;
+		}
+
+		@Override
+		public Integer getUserId() {
+			return userId;
+		}
+
+		@Override
+		public String getEmailId() {
+			return emailId;
+		}
+
+		@Override
+		public String getUserName() {
+			return userName;
+		}
+
+		@Override
+		public String getGender() {
+			return gender;
+		}
+
+		@Override
+		public String getUserType() {
+			return userType;
+		}
+
+		@Override
+		public String getCountry() {
+			return country;
+		}
+
+		@Override
+		public Boolean getUserIsActive() {
+			return userIsActive;
+		}
+
+		@Override
+		public Date getUserCreatedOn() {
+			return userCreatedOn;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.mykare.user_management.repository;
+
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mykare.user_management.model.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+	/**
+	 * Returns 1 for the one caller that removed the token and 0 for everyone
+	 * else, which makes redeeming a token single-use across instances.
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken t where t.tokenHash = :tokenHash")
+	int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken t where t.userId = :userId")
+	int deleteByUserId(@Param("userId") Integer userId);
+
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken t where t.expiresAt <= :now")
+	int deleteExpired(@Param("now") Date now);
+
+}
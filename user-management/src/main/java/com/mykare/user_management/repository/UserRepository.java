@@ -1,15 +1,62 @@
 package com.mykare.user_management.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mykare.user_management.model.User;
+import com.mykare.user_management.util.EmailAddresses;
+import com.mykare.user_management.webModel.UserSummary;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
+
+	/**
+	 * Case- and whitespace-insensitive lookup by the {@code emailIdNormalized}
+	 * natural id. Served from the second-level cache when the user is cached.
+	 */
+	default Optional<User> findByEmailId(String email) {
+		String normalized = EmailAddresses.normalize(email);
+		return normalized == null ? Optional.empty() : findByEmailIdNormalized(normalized);
+	}
+
+	/** Returns which of the given normalized emails are already registered. */
+	@Query("select u.emailIdNormalized from User u where u.emailIdNormalized in :emailIds")
+	List<String> findExistingEmailIds(@Param("emailIds") Collection<String> emailIds);
+
+	@Modifying
+	@Transactional
+	@Query("update User u set u.emailIdNormalized = lower(trim(u.emailId)) "
+			+ "where u.emailIdNormalized is null and u.emailId is not null")
+	int backfillEmailIdNormalized();
+
+	/** Summaries of the given users, in no particular order. */
+	@Query("select u.userId as userId, u.emailId as emailId, u.userName as userName, u.gender as gender, "
+			+ "u.userType as userType, u.country as country, u.userIsActive as userIsActive, "
+			+ "u.userCreatedOn as userCreatedOn from User u where u.userId in :userIds")
+	List<UserSummary> findSummariesByUserIdIn(@Param("userIds") Collection<Integer> userIds);
 
-	Optional<User> findByEmailId(String email);
+	/**
+	 * Every user in id order as a forward-only stream. Must be consumed inside a
+	 * transaction and closed; rows are fetched from the driver in batches.
+	 */
+	@QueryHints({ @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false") })
+	@Query("select u.userId as userId, u.emailId as emailId, u.userName as userName, u.gender as gender, "
+			+ "u.userType as userType, u.country as country, u.userIsActive as userIsActive, "
+			+ "u.userCreatedOn as userCreatedOn from User u order by u.userId")
+	Stream<UserSummary> streamAllSummaries();
 
 }
@@ -0,0 +1,35 @@
+package com.mykare.user_management.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.webModel.UserSummary;
+
+/**
+ * Lookups and updates that go through the Hibernate session so they use and
+ * maintain the second-level cache, which JPQL bulk statements would bypass or
+ * evict wholesale, and queries whose shape depends on which arguments are set.
+ */
+public interface UserRepositoryCustom {
+
+	/** Loads a user by normalized email through the natural-id cache. */
+	Optional<User> findByEmailIdNormalized(String emailIdNormalized);
+
+	/**
+	 * Keyset page of users with an id greater than {@code cursor}, in id order.
+	 * Null filters are left out of the query rather than bound as null. Pass
+	 * {@code PageRequest.of(0, n)} to limit the page size; no count query is issued.
+	 */
+	List<UserSummary> findPageAfter(Integer cursor, String userType, String country, Date createdFrom,
+			Date createdTo, Pageable pageable);
+
+	int updateLocation(Collection<Integer> userIds, String ipAddress, String country);
+
+	int updatePassword(Integer userId, String password);
+
+}
@@ -0,0 +1,217 @@
+package com.mykare.user_management.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.webModel.UserSummary;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+	// Hibernate evicts every entity region sharing a native update's query spaces; this one matches none
+	private static final String LOCATION_QUERY_SPACE = "users_location";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Timer emailLookupTimer;
+
+	@PostConstruct
+	public void init() {
+		emailLookupTimer = meterRegistry.timer("user.email.lookup");
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<User> findByEmailIdNormalized(String emailIdNormalized) {
+		return emailLookupTimer.record(() -> entityManager.unwrap(Session.class)
+				.bySimpleNaturalId(User.class)
+				.loadOptional(emailIdNormalized));
+	}
+
+	/**
+	 * Only the filters that are set become predicates. A null {@code Date}
+	 * compared with {@code is null} is bound without a type, which PostgreSQL
+	 * rejects, so optional filters are never written into the query.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<UserSummary> findPageAfter(Integer cursor, String userType, String country, Date createdFrom,
+			Date createdTo, Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<User> user = query.from(User.class);
+
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(cb.greaterThan(user.<Integer>get("userId"), cursor));
+		if (userType != null) {
+			predicates.add(cb.equal(user.get("userType"), userType));
+		}
+		if (country != null) {
+			predicates.add(cb.equal(user.get("country"), country));
+		}
+		if (createdFrom != null) {
+			predicates.add(cb.greaterThanOrEqualTo(user.<Date>get("userCreatedOn"), createdFrom));
+		}
+		if (createdTo != null) {
+			predicates.add(cb.lessThan(user.<Date>get("userCreatedOn"), createdTo));
+		}
+
+		query.multiselect(user.get("userId"), user.get("emailId"), user.get("userName"), user.get("gender"),
+				user.get("userType"), user.get("country"), user.get("userIsActive"), user.get("userCreatedOn"))
+				.where(predicates.toArray(new Predicate[0]))
+				.orderBy(cb.asc(user.get("userId")));
+
+		List<Tuple> rows = entityManager.createQuery(query)
+				.setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize())
+				.getResultList();
+		List<UserSummary> page = new ArrayList<>(rows.size());
+		for (Tuple row : rows) {
+			page.add(new SummaryRow(row));
+		}
+		return page;
+	}
+
+	/**
+	 * Writes all of the users in one {@code update} statement. It is a native
+	 * query on its own query space, so Hibernate does not drop the whole User
+	 * region as it would for a JPQL bulk update; the cached entries of just
+	 * these users are evicted instead, once now and again after commit so a
+	 * read that re-cached the old row before the commit does not outlive it.
+	 */
+	@Override
+	@Transactional
+	public int updateLocation(Collection<Integer> userIds, String ipAddress, String country) {
+		if (userIds.isEmpty()) {
+			return 0;
+		}
+		int updated = entityManager.unwrap(Session.class)
+				.createNativeQuery("update users set ip_address = :ipAddress, country = :country where id in (:userIds)")
+				.addSynchronizedQuerySpace(LOCATION_QUERY_SPACE)
+				.setParameter("ipAddress", ipAddress)
+				.setParameter("country", country)
+				.setParameterList("userIds", userIds)
+				.executeUpdate();
+		List<Integer> evicted = new ArrayList<>(userIds);
+		evictUsers(evicted);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evictUsers(evicted);
+				}
+			});
+		}
+		return updated;
+	}
+
+	private void evictUsers(List<Integer> userIds) {
+		Cache cache = entityManager.getEntityManagerFactory().getCache();
+		for (Integer userId : userIds) {
+			cache.evict(User.class, userId);
+		}
+	}
+
+	@Override
+	@Transactional
+	public int updatePassword(Integer userId, String password) {
+		User user = entityManager.find(User.class, userId);
+		if (user == null) {
+			return 0;
+		}
+		user.setPassword(password);
+		return 1;
+	}
+
+	/** Values in the order {@link #findPageAfter} selects them. */
+	private static final class SummaryRow implements UserSummary {
+
+		private final Integer userId;
+		private final String emailId;
+		private final String userName;
+		private final String gender;
+		private final String userType;
+		private final String country;
+		private final Boolean userIsActive;
+		private final Date userCreatedOn;
+
+		private SummaryRow(Tuple row) {
+			userId = row.get(0, Integer.class);
+			emailId = row.get(1, String.class);
+			userName = row.get(2, String.class);
+			gender = row.get(3, String.class);
+			userType = row.get(4, String.class);
+			country = row.get(5, String.class);
+			userIsActive = row.get(6, Boolean.class);
+			userCreatedOn = row.get(7, Date.class);
+		}
+
+		@Override
+		public Integer getUserId() {
+			return userId;
+		}
+
+		@Override
+		public String getEmailId() {
+			return emailId;
+		}
+
+		@Override
+		public String getUserName() {
+			return userName;
+		}
+
+		@Override
+		public String getGender() {
+			return gender;
+		}
+
+		@Override
+		public String getUserType() {
+			return userType;
+		}
+
+		@Override
+		public String getCountry() {
+			return country;
+		}
+
+		@Override
+		public Boolean getUserIsActive() {
+			return userIsActive;
+		}
+
+		@Override
+		public Date getUserCreatedOn() {
+			return userCreatedOn;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.mykare.user_management.security;
+
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The account Prometheus uses to scrape {@code /actuator/prometheus} with HTTP
+ * Basic, since a scraper cannot log in for a JWT. It exists only when
+ * {@code annular.app.metrics.scrapePassword} is set; otherwise every scrape is
+ * rejected.
+ */
+@Component
+public class MetricsScrapeUser {
+
+    public static final String ROLE = "METRICS";
+
+    @Value("${annular.app.metrics.scrapeUser:prometheus}")
+    private String username;
+
+    @Value("${annular.app.metrics.scrapePassword:}")
+    private String password;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String passwordHash;
+
+    @PostConstruct
+    public void init() {
+        if (!password.isEmpty()) {
+            passwordHash = passwordEncoder.encode(password);
+        }
+    }
+
+    /**
+     * A fresh copy of the account for {@code username}; the authentication manager
+     * erases the credentials of the instance it is given.
+     */
+    public Optional<UserDetails> find(String username) {
+        if (passwordHash == null || !this.username.equals(username)) {
+            return Optional.empty();
+        }
+        return Optional.of(User.withUsername(username).password(passwordHash).roles(ROLE).build());
+    }
+}
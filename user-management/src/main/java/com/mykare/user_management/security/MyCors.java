@@ -12,11 +12,15 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import com.mykare.user_management.logging.LogMarkers;
+
 @Component
+@Profile("!reactive")
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class MyCors implements Filter {
 
@@ -26,7 +30,8 @@ public class MyCors implements Filter {
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         HttpServletResponse httpResponse = (HttpServletResponse) response;
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        logger.info("Request URI -> {}", httpRequest.getHeader("Origin"));
+        logger.debug(LogMarkers.HOT_PATH, "Request {} {} from origin {}", httpRequest.getMethod(), httpRequest.getRequestURI(),
+                httpRequest.getHeader("Origin"));
         httpResponse.setHeader("Access-Control-Allow-Origin", "*");
         httpResponse.setHeader("Access-Control-Allow-Methods", "GET,POST,DELETE,PUT,OPTIONS");
         httpResponse.setHeader("Access-Control-Allow-Headers", "*");
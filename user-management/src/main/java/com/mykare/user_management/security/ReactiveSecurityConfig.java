@@ -0,0 +1,112 @@
+package com.mykare.user_management.security;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import com.mykare.user_management.security.jwt.ReactiveAuthEntryPointJwt;
+import com.mykare.user_management.security.jwt.ReactiveAuthTokenFilter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link WebSecurityConfig} for the reactive profile: the same public paths,
+ * stateless JWT authentication and CORS headers as {@link MyCors}.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private ReactiveAuthEntryPointJwt unauthorizedHandler;
+
+    @Autowired
+    private MetricsScrapeUser metricsScrapeUser;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Bean
+    public ReactiveAuthTokenFilter reactiveAuthTokenFilter() {
+        return new ReactiveAuthTokenFilter();
+    }
+
+    // Prometheus scrapes with HTTP Basic as MetricsScrapeUser; checked before the JWT chain
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain prometheusWebFilterChain(ServerHttpSecurity http) {
+        UserDetailsRepositoryReactiveAuthenticationManager scrapeAuthenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(
+                        username -> Mono.justOrEmpty(metricsScrapeUser.find(username)));
+        scrapeAuthenticationManager.setPasswordEncoder(passwordEncoder);
+
+        http.securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"))
+            .csrf().disable()
+            .formLogin().disable()
+            .logout().disable()
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authenticationManager(scrapeAuthenticationManager)
+            .httpBasic()
+            .and()
+            .authorizeExchange()
+            .anyExchange()
+            .hasRole(MetricsScrapeUser.ROLE);
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http.cors()
+            .and()
+            // Bearer tokens only; no cookie the browser could send on its own
+            .csrf().disable()
+            .httpBasic().disable()
+            .formLogin().disable()
+            .logout().disable()
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling().authenticationEntryPoint(unauthorizedHandler)
+            .and()
+            .authorizeExchange()
+            .pathMatchers("/user/login", "/user/refreshToken", "/user/register")
+            .permitAll()
+            // Probed by the orchestrator without a JWT
+            .pathMatchers("/actuator/health")
+            .permitAll()
+            .anyExchange()
+            .authenticated()
+            .and()
+            .addFilterAt(reactiveAuthTokenFilter(), SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return http.build();
+    }
+
+    @Bean
+    CorsConfigurationSource reactiveCorsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of("*"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "DELETE", "PUT", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setMaxAge(3600L);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
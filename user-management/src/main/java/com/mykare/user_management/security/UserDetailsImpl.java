@@ -16,18 +16,20 @@ public class UserDetailsImpl implements UserDetails {
     private final String userName;
     private final String userEmailId;
     private final String userType;
+    private final int tokenVersion;
 
     @JsonIgnore
     private final String password;
 
     private final Collection<? extends GrantedAuthority> authorities;
 
-    public UserDetailsImpl(Integer id, String userName, String userEmailId, String userType, String password,
-                           Collection<? extends GrantedAuthority> authorities) {
+    public UserDetailsImpl(Integer id, String userName, String userEmailId, String userType, int tokenVersion,
+                           String password, Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.userName = userName;
         this.userEmailId = userEmailId;
         this.userType = userType;
+        this.tokenVersion = tokenVersion;
         this.password = password;
         this.authorities = authorities;
     }
@@ -38,11 +40,21 @@ public class UserDetailsImpl implements UserDetails {
                 user.getUserName(),  // Ensure it correctly returns `userName`
                 user.getEmailId(),
                 user.getUserType(),
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0,
                 user.getPassword(),
                 Set.of()  // Default empty authorities, modify as needed
         );
     }
 
+    /**
+     * Rebuilds a principal from the signed claims of a verified JWT. The password
+     * is never part of a token, so the result carries none.
+     */
+    public static UserDetailsImpl fromClaims(Integer id, String userName, String userEmailId, String userType,
+                                             int tokenVersion) {
+        return new UserDetailsImpl(id, userName, userEmailId, userType, tokenVersion, null, Set.of());
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -60,6 +72,15 @@ public class UserDetailsImpl implements UserDetails {
         return userType;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    @JsonIgnore
+    public boolean isAdmin() {
+        return "ADMIN".equalsIgnoreCase(userType);
+    }
+
     @Override
     public String getPassword() {
         return password;
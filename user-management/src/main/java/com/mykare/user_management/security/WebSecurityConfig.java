@@ -4,7 +4,10 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -12,7 +15,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,8 +25,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.mykare.user_management.security.jwt.AuthEntryPointJwt;
 import com.mykare.user_management.security.jwt.AuthTokenFilter;
+import com.mykare.user_management.service.serviceImpl.UserDetailsServiceImpl;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 public class WebSecurityConfig {
@@ -31,9 +36,19 @@ public class WebSecurityConfig {
     @Autowired
     UserDetailsService userDetailsService;
 
+    @Autowired
+    UserDetailsServiceImpl userDetailsPasswordService;
+
+    // PasswordHashingService: pooled, cost-calibrated BCrypt
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private MetricsScrapeUser metricsScrapeUser;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -43,7 +58,9 @@ public class WebSecurityConfig {
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Hashes with an outdated cost are replaced after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -52,16 +69,36 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // Prometheus scrapes with HTTP Basic as MetricsScrapeUser; checked before the JWT chain
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http) throws Exception {
+        DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider();
+        scrapeProvider.setUserDetailsService(username -> metricsScrapeUser.find(username)
+                .orElseThrow(() -> new UsernameNotFoundException(username)));
+        scrapeProvider.setPasswordEncoder(passwordEncoder);
+
+        http.antMatcher("/actuator/prometheus")
+            .csrf().disable()
+            .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            .and()
+            .authorizeRequests()
+            .anyRequest()
+            .hasRole(MetricsScrapeUser.ROLE)
+            .and()
+            .httpBasic()
+            .and()
+            .authenticationManager(new ProviderManager(scrapeProvider));
+
+        return http.build();
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors()
             .and()
-            .csrf().ignoringAntMatchers("/h2-console/**","/swagger-ui/**") // Disable CSRF for H2
+            // Disable CSRF for H2, and for the API: it authenticates with a bearer header, never a cookie
+            .csrf().ignoringAntMatchers("/h2-console/**","/swagger-ui/**","/user/**")
             .and()
             .headers().frameOptions().disable() // Allow H2 UI
             .and()
@@ -83,6 +120,9 @@ public class WebSecurityConfig {
                          "/user/register", 
                          "/h2-console/**")
             .permitAll()
+            // Probed by the orchestrator without a JWT
+            .antMatchers("/actuator/health")
+            .permitAll()
             .anyRequest()
             .authenticated();
 
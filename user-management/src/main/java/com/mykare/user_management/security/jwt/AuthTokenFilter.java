@@ -9,13 +9,15 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.mykare.user_management.logging.LogMarkers;
+import com.mykare.user_management.security.UserDetailsImpl;
 import com.mykare.user_management.service.serviceImpl.UserDetailsServiceImpl;
 
 
@@ -29,34 +31,42 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${annular.app.jwtStatelessAuth:false}")
+    private boolean statelessAuth;
+
+    @Value("${annular.app.jwtCacheEnabled:false}")
+    private boolean tokenCacheEnabled;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            logger.info("JWT from request :- {}", jwt);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                logger.info("JWT available...");
-
-                // Old one
-                // String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                // UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                // New one Username and usertype based login
-                String userEmailId = jwtUtils.getDataFromJwtToken(jwt, "userEmailId");
-                String userType = jwtUtils.getDataFromJwtToken(jwt, "userType");
-                StringBuilder userNameWithUserType = new StringBuilder().append(userEmailId).append("^").append(userType);
-                logger.info("Username with UserType : {}", userNameWithUserType);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userNameWithUserType.toString());
+            VerifiedTokenCache.CachedToken verifiedToken = jwt != null ? verifyToken(jwt) : null;
+            if (verifiedToken != null) {
+                logger.debug(LogMarkers.HOT_PATH, "JWT verified for user {}", verifiedToken.getPrincipal() != null
+                        ? verifiedToken.getPrincipal().getId() : null);
+
+                UserDetailsImpl userDetails = resolvePrincipal(verifiedToken);
+                if (userDetails == null) {
+                    logger.info(LogMarkers.HOT_PATH, "JWT has been revoked...");
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
             } else {
-                logger.info("JWT not available...");
+                logger.debug(LogMarkers.HOT_PATH, "JWT not available...");
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication...", e);
@@ -64,6 +74,53 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verifies the token, or serves it from {@link VerifiedTokenCache} when the
+     * same token has already been verified. Returns {@code null} for invalid tokens.
+     */
+    private VerifiedTokenCache.CachedToken verifyToken(String jwt) {
+        if (tokenCacheEnabled) {
+            VerifiedTokenCache.CachedToken cachedToken = verifiedTokenCache.get(jwt);
+            if (cachedToken != null && !cachedToken.isExpired()) {
+                return cachedToken;
+            }
+        }
+        VerifiedJwt verifiedJwt = jwtUtils.verifyJwtToken(jwt);
+        if (verifiedJwt == null) {
+            return null;
+        }
+        return tokenCacheEnabled ? verifiedTokenCache.put(jwt, verifiedJwt) : new VerifiedTokenCache.CachedToken(verifiedJwt);
+    }
+
+    /**
+     * Returns the principal for a verified token, or {@code null} when the token
+     * has been revoked. Revocation is checked in memory for every token. In
+     * stateless mode the principal is then taken straight from the signed
+     * claims; the database is only consulted when stateless mode is off.
+     */
+    private UserDetailsImpl resolvePrincipal(VerifiedTokenCache.CachedToken verifiedToken) {
+        UserDetailsImpl tokenPrincipal = verifiedToken.getPrincipal();
+        if (tokenPrincipal == null) {
+            // Issued before tokens carried the user id
+            return null;
+        }
+        if (tokenRevocationList.isRevoked(tokenPrincipal.getId(), verifiedToken.getTokenId(),
+                verifiedToken.getIssuedAtSeconds())) {
+            return null;
+        }
+        if (statelessAuth) {
+            return tokenPrincipal;
+        }
+
+        // Username and usertype based login
+        StringBuilder userNameWithUserType = new StringBuilder().append(tokenPrincipal.getUserEmailId()).append("^")
+                .append(tokenPrincipal.getUserType());
+        logger.debug(LogMarkers.HOT_PATH, "Username with UserType : {}", userNameWithUserType);
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(userNameWithUserType.toString());
+        return tokenPrincipal.getTokenVersion() >= userDetails.getTokenVersion() ? userDetails : null;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
@@ -1,5 +1,6 @@
 package com.mykare.user_management.security.jwt;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,6 +21,9 @@ public class JwtResponse {
 	private String jwt;
     private Integer id;
     private Integer status;
+    // Left out of the response where no refresh token is issued
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
 
 
 }
@@ -1,97 +1,189 @@
 package com.mykare.user_management.security.jwt;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.mykare.user_management.logging.LogMarkers;
 import com.mykare.user_management.model.User;
 import com.mykare.user_management.security.UserDetailsImpl;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
 public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${annular.app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${annular.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
-    public String generateJwtToken(Authentication authentication) {
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_USER_NAME = "userName";
+    public static final String CLAIM_USER_EMAIL_ID = "userEmailId";
+    public static final String CLAIM_USER_TYPE = "userType";
+    public static final String CLAIM_TOKEN_VERSION = "tokenVersion";
 
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+    private SecretKey signingKey;
 
-        Claims claims = Jwts.claims();
-        claims.put("userEmailId", userPrincipal.getUserEmailId());
+    private JwtParser jwtParser;
+
+    private Timer signTimer;
+
+    private Timer verifyTimer;
+
+    private Counter invalidSignatureCounter;
 
-        byte[] keyBytes = new byte[64];
-        SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA512");
+    private Counter malformedCounter;
 
-        return Jwts.builder().setSubject(userPrincipal.getUsername()).setClaims(claims).setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, key).compact();
+    private Counter expiredCounter;
+
+    private Counter unsupportedCounter;
+
+    private Counter emptyCounter;
+
+    /**
+     * Builds the HS512 key and the parser once. The parser holds no per-token
+     * state, so one instance is shared by all request threads.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = new SecretKeySpec(deriveKeyBytes(jwtSecret), "HmacSHA512");
+        jwtParser = Jwts.parser().setSigningKey(signingKey);
+
+        signTimer = meterRegistry.timer("jwt.sign");
+        verifyTimer = meterRegistry.timer("jwt.verify");
+        invalidSignatureCounter = meterRegistry.counter("jwt.verify.failed", "cause", "signature");
+        malformedCounter = meterRegistry.counter("jwt.verify.failed", "cause", "malformed");
+        expiredCounter = meterRegistry.counter("jwt.verify.failed", "cause", "expired");
+        unsupportedCounter = meterRegistry.counter("jwt.verify.failed", "cause", "unsupported");
+        emptyCounter = meterRegistry.counter("jwt.verify.failed", "cause", "empty");
     }
 
-    public String generateJwtTokenForRefreshToken(User user) {
+    // HS512 wants a 512-bit key, so the configured secret is stretched with SHA-512
+    private static byte[] deriveKeyBytes(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-512").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 is not available", e);
+        }
+    }
 
-//		UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+    public String generateJwtToken(Authentication authentication) {
 
-        Claims claims = Jwts.claims();
-        claims.put("userEmailId", user.getEmailId());
+        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateJwtToken(userPrincipal);
+    }
 
+    public String generateJwtTokenForRefreshToken(User user) {
+        return generateJwtToken(UserDetailsImpl.build(user));
+    }
 
-        byte[] keyBytes = new byte[64];
-        SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA512");
+    /**
+     * Signs everything {@link AuthTokenFilter} needs to rebuild the principal
+     * without a database lookup. The {@code jti} lets a single token be revoked
+     * through {@link TokenRevocationList}.
+     */
+    public String generateJwtToken(UserDetailsImpl userPrincipal) {
 
-        return Jwts.builder().setSubject(user.getEmailId()).setClaims(claims).setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, key).compact();
+        Claims claims = Jwts.claims();
+        claims.put(CLAIM_USER_ID, userPrincipal.getId());
+        claims.put(CLAIM_USER_NAME, userPrincipal.getUsername());
+        claims.put(CLAIM_USER_EMAIL_ID, userPrincipal.getUserEmailId());
+        claims.put(CLAIM_USER_TYPE, userPrincipal.getUserType());
+        claims.put(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion());
+
+        // Only has to be unique, not secret: the token is signed
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String tokenId = new UUID(random.nextLong(), random.nextLong()).toString();
+
+        long now = System.currentTimeMillis();
+        return signTimer.record(() -> Jwts.builder().setClaims(claims).setId(tokenId).setSubject(userPrincipal.getUserEmailId()).setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpirationMs))
+                .signWith(SignatureAlgorithm.HS512, signingKey).compact());
     }
 
     public String getUserNameFromJwtToken(String token) {
-        byte[] keyBytes = new byte[64];
-        SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA512");
-        return Jwts.parser().setSigningKey(key).parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public String getDataFromJwtToken(String token, String key) {
-        byte[] keyBytes = new byte[64];
-        SecretKey key1 = new SecretKeySpec(keyBytes, "HmacSHA512");
-        return Jwts.parser().setSigningKey(key1).parseClaimsJws(token).getBody().get(key).toString();
+        return jwtParser.parseClaimsJws(token).getBody().get(key).toString();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Rebuilds the principal from the signed claims, or returns {@code null} for
+     * tokens issued before the claims carried the user id.
+     */
+    public UserDetailsImpl getUserDetailsFromJwtToken(String token) {
+        return new VerifiedJwt(jwtParser.parseClaimsJws(token).getBody()).toUserDetails();
+    }
+
+    /**
+     * Checks the signature and expiry exactly once and returns the parsed claims,
+     * or {@code null} when the token is not valid. Callers should read everything
+     * they need from the result instead of calling the single-claim getters above,
+     * each of which verifies the token again.
+     *
+     * Rejections are counted in {@code jwt.verify.failed} by cause; the log lines
+     * are only a sample.
+     */
+    public VerifiedJwt verifyJwtToken(String authToken) {
+        long start = System.nanoTime();
         try {
-            byte[] keyBytes = new byte[64];
-            SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA512");
-            Jwts.parser().setSigningKey(key).parseClaimsJws(authToken);
-            return true;
+            return new VerifiedJwt(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (SignatureException e) {
-            logger.error("Invalid JWT signature: {}", e.getMessage());
+            invalidSignatureCounter.increment();
+            logger.info(LogMarkers.HOT_PATH, "Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            malformedCounter.increment();
+            logger.info(LogMarkers.HOT_PATH, "Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            expiredCounter.increment();
+            logger.info(LogMarkers.HOT_PATH, "JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            unsupportedCounter.increment();
+            logger.info(LogMarkers.HOT_PATH, "JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            emptyCounter.increment();
+            logger.info(LogMarkers.HOT_PATH, "JWT claims string is empty: {}", e.getMessage());
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        return false;
+        return null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
     }
-}
\ No newline at end of file
+}
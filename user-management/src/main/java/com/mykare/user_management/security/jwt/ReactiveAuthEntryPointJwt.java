@@ -0,0 +1,43 @@
+package com.mykare.user_management.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AuthEntryPointJwt} for the reactive profile; writes the same JSON body.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAuthEntryPointJwt implements ServerAuthenticationEntryPoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthEntryPointJwt.class);
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authException) {
+        logger.error("Unauthorized error...", authException);
+        JSONObject jsonResponse = new JSONObject();
+        jsonResponse.put("data", authException.getMessage());
+        jsonResponse.put("message", "Fail");
+        jsonResponse.put("status", -1);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(jsonResponse.toString().getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,118 @@
+package com.mykare.user_management.security.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.mykare.user_management.logging.LogMarkers;
+import com.mykare.user_management.repository.ReactiveUserRepository;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.util.EmailAddresses;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * {@link AuthTokenFilter} for the reactive profile. Verification, the token
+ * cache and the stateless revocation check are the same; when the principal
+ * has to be loaded it comes from {@link ReactiveUserRepository}. The
+ * authentication is written to the Reactor context of the rest of the chain
+ * rather than to a thread-local.
+ */
+public class ReactiveAuthTokenFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthTokenFilter.class);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${annular.app.jwtStatelessAuth:false}")
+    private boolean statelessAuth;
+
+    @Value("${annular.app.jwtCacheEnabled:false}")
+    private boolean tokenCacheEnabled;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = parseJwt(exchange.getRequest());
+        VerifiedTokenCache.CachedToken verifiedToken = jwt != null ? verifyToken(jwt) : null;
+        if (verifiedToken == null) {
+            logger.debug(LogMarkers.HOT_PATH, "JWT not available...");
+            return chain.filter(exchange);
+        }
+        logger.debug(LogMarkers.HOT_PATH, "JWT verified for user {}", verifiedToken.getPrincipal() != null
+                ? verifiedToken.getPrincipal().getId() : null);
+
+        // An empty principal means a revoked token; the request goes on unauthenticated
+        return resolvePrincipal(verifiedToken)
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .onErrorResume(e -> {
+                    logger.error("Cannot set user authentication...", e);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    private VerifiedTokenCache.CachedToken verifyToken(String jwt) {
+        if (tokenCacheEnabled) {
+            VerifiedTokenCache.CachedToken cachedToken = verifiedTokenCache.get(jwt);
+            if (cachedToken != null && !cachedToken.isExpired()) {
+                return cachedToken;
+            }
+        }
+        VerifiedJwt verifiedJwt = jwtUtils.verifyJwtToken(jwt);
+        if (verifiedJwt == null) {
+            return null;
+        }
+        return tokenCacheEnabled ? verifiedTokenCache.put(jwt, verifiedJwt) : new VerifiedTokenCache.CachedToken(verifiedJwt);
+    }
+
+    private Mono<UserDetailsImpl> resolvePrincipal(VerifiedTokenCache.CachedToken verifiedToken) {
+        UserDetailsImpl tokenPrincipal = verifiedToken.getPrincipal();
+        if (tokenPrincipal == null || tokenRevocationList.isRevoked(tokenPrincipal.getId(),
+                verifiedToken.getTokenId(), verifiedToken.getIssuedAtSeconds())) {
+            // Revoked, or issued before tokens carried the user id
+            logger.info(LogMarkers.HOT_PATH, "JWT has been revoked...");
+            return Mono.empty();
+        }
+        if (statelessAuth) {
+            return Mono.just(tokenPrincipal);
+        }
+
+        String emailIdNormalized = EmailAddresses.normalize(tokenPrincipal.getUserEmailId());
+        if (emailIdNormalized == null) {
+            return Mono.empty();
+        }
+        return userRepository.findByEmailIdNormalized(emailIdNormalized)
+                .map(UserDetailsImpl::build)
+                .filter(userDetails -> tokenPrincipal.getTokenVersion() >= userDetails.getTokenVersion());
+    }
+
+    private String parseJwt(ServerHttpRequest request) {
+        String headerAuth = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+        return null;
+    }
+}
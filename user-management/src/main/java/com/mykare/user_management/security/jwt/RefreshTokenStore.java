@@ -0,0 +1,529 @@
+package com.mykare.user_management.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mykare.user_management.model.RefreshToken;
+import com.mykare.user_management.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Opaque, single-use refresh tokens. A token is 256 random bits; only its
+ * SHA-256 is kept, both in memory and in the {@code refresh_tokens} table.
+ *
+ * The in-memory copy is split into lock-striped shards. Issuing and redeeming a
+ * token this instance holds never touches the database. The table is written
+ * behind: new tokens are inserted and redeemed ones deleted in batches every
+ * {@code annular.app.refreshToken.flushMs}, and a token redeemed before its
+ * insert was flushed is never written at all. Only on a miss, for a token
+ * issued elsewhere or before a restart, is the table read, and then only the
+ * caller whose delete removed the row may continue.
+ *
+ * Writing behind trades two windows of {@code flushMs} for the round trips:
+ * <ul>
+ * <li>A token is not visible to other instances until it is flushed, and a
+ * token redeemed here can still be redeemed once more on another instance until
+ * its delete is flushed. Replays on this instance are always rejected.</li>
+ * <li>On a crash, tokens issued in the last window are lost and their users log
+ * in again, and tokens redeemed in the last window stay in the table until they
+ * expire.</li>
+ * </ul>
+ * Pending writes are flushed on shutdown.
+ *
+ * Expired entries are dropped by a timing wheel: each shard files its tokens in
+ * a slot by expiry tick, and a background thread sweeps the slots of elapsed
+ * ticks. The same thread deletes expired rows from the table and runs the
+ * flushes.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.refreshToken.expirationMs:1209600000}")
+    private long expirationMs;
+
+    @Value("${annular.app.refreshToken.shards:16}")
+    private int shardCount;
+
+    @Value("${annular.app.refreshToken.maxInMemory:200000}")
+    private int maxInMemory;
+
+    @Value("${annular.app.refreshToken.wheelTickMs:60000}")
+    private long wheelTickMs;
+
+    @Value("${annular.app.refreshToken.wheelSlots:1024}")
+    private int wheelSlots;
+
+    @Value("${annular.app.refreshToken.flushMs:1000}")
+    private long flushMs;
+
+    @Value("${annular.app.refreshToken.flushBatchSize:500}")
+    private int flushBatchSize;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final AtomicInteger inMemory = new AtomicInteger();
+
+    private Shard[] shards;
+
+    // Guards pendingInserts, flushingInserts and pendingDeletes
+    private final ReentrantLock pendingLock = new ReentrantLock();
+
+    // Serializes flushes with revokeAll, so an insert in flight cannot outlive a revocation
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Issued tokens not yet handed to a flush
+    private Map<String, RefreshToken> pendingInserts = new HashMap<>();
+
+    // Issued tokens the current flush is inserting
+    private Map<String, RefreshToken> flushingInserts = Map.of();
+
+    // Redeemed tokens whose row has not been deleted yet; a replay of one is rejected without a read
+    private final Set<String> pendingDeletes = new HashSet<>();
+
+    private ScheduledExecutorService wheel;
+
+    private Counter issuedCounter;
+
+    private Counter redeemedCounter;
+
+    private Counter rejectedCounter;
+
+    private Counter storeFallbackCounter;
+
+    @PostConstruct
+    public void init() {
+        // Power of two so the shard is picked with a mask
+        int count = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        long elapsedTick = System.currentTimeMillis() / wheelTickMs - 1;
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(wheelSlots, elapsedTick);
+        }
+
+        issuedCounter = meterRegistry.counter("refresh.token", "result", "issued");
+        redeemedCounter = meterRegistry.counter("refresh.token", "result", "redeemed");
+        rejectedCounter = meterRegistry.counter("refresh.token", "result", "rejected");
+        storeFallbackCounter = meterRegistry.counter("refresh.token.store.fallback");
+        meterRegistry.gauge("refresh.token.cached", inMemory);
+        meterRegistry.gauge("refresh.token.pending", this, RefreshTokenStore::pendingWriteCount);
+
+        wheel = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel.scheduleWithFixedDelay(this::advance, wheelTickMs, wheelTickMs, TimeUnit.MILLISECONDS);
+        wheel.scheduleWithFixedDelay(this::writeBehind, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Refresh tokens not written on shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Issues a new refresh token for the user. The token reaches the table with
+     * the next flush.
+     */
+    public String issue(Integer userId) {
+        byte[] random = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        String tokenHash = hash(token);
+        long expiresAt = System.currentTimeMillis() + expirationMs;
+
+        pendingLock.lock();
+        try {
+            pendingInserts.put(tokenHash, new RefreshToken(tokenHash, userId, new Date(expiresAt), null));
+        } finally {
+            pendingLock.unlock();
+        }
+        // Past the cap, tokens are only kept in the table and redeemed through the fallback
+        if (inMemory.get() < maxInMemory) {
+            shardFor(tokenHash).put(tokenHash, new Entry(userId, expiresAt));
+        }
+        issuedCounter.increment();
+        return token;
+    }
+
+    /**
+     * Redeems a refresh token and returns the id of the user it was issued to.
+     * Returns {@code null} when the token is unknown, expired or has already
+     * been redeemed. The token cannot be used again either way.
+     */
+    public Integer redeem(String token) {
+        if (token == null || token.isEmpty()) {
+            rejectedCounter.increment();
+            return null;
+        }
+        String tokenHash = hash(token);
+
+        Entry entry = shardFor(tokenHash).redeem(tokenHash);
+        if (entry == null) {
+            entry = redeemPending(tokenHash);
+        }
+        if (entry == null) {
+            entry = redeemFromTable(tokenHash);
+        }
+
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            rejectedCounter.increment();
+            return null;
+        }
+        redeemedCounter.increment();
+        return entry.userId;
+    }
+
+    /**
+     * Drops every refresh token of the user, used when the account is removed.
+     */
+    @Transactional
+    public void revokeAll(Integer userId) {
+        for (Shard shard : shards) {
+            shard.removeUser(userId);
+        }
+        flushLock.lock();
+        try {
+            pendingLock.lock();
+            try {
+                pendingInserts.values().removeIf(row -> row.getUserId().equals(userId));
+            } finally {
+                pendingLock.unlock();
+            }
+            refreshTokenRepository.deleteByUserId(userId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    int cachedTokenCount() {
+        return inMemory.get();
+    }
+
+    int pendingWriteCount() {
+        pendingLock.lock();
+        try {
+            return pendingInserts.size() + flushingInserts.size() + pendingDeletes.size();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Writes pending inserts and deletes to the table, at most
+     * {@code flushBatchSize} rows per statement batch. Inserts that fail are
+     * kept for the next flush; deletes stay pending until they succeed.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            List<RefreshToken> inserts;
+            List<String> deletes;
+            pendingLock.lock();
+            try {
+                flushingInserts = pendingInserts;
+                pendingInserts = new HashMap<>();
+                inserts = new ArrayList<>(flushingInserts.values());
+                deletes = new ArrayList<>(pendingDeletes);
+            } finally {
+                pendingLock.unlock();
+            }
+
+            int written = 0;
+            try {
+                while (written < inserts.size()) {
+                    int end = Math.min(inserts.size(), written + flushBatchSize);
+                    refreshTokenRepository.saveAll(inserts.subList(written, end));
+                    written = end;
+                }
+            } catch (RuntimeException e) {
+                requeue(inserts.subList(written, inserts.size()));
+                throw e;
+            } finally {
+                pendingLock.lock();
+                try {
+                    flushingInserts = Map.of();
+                } finally {
+                    pendingLock.unlock();
+                }
+            }
+
+            for (int from = 0; from < deletes.size(); from += flushBatchSize) {
+                List<String> batch = deletes.subList(from, Math.min(deletes.size(), from + flushBatchSize));
+                refreshTokenRepository.deleteAllByIdInBatch(batch);
+                pendingLock.lock();
+                try {
+                    pendingDeletes.removeAll(batch);
+                } finally {
+                    pendingLock.unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeBehind() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Kept pending and retried next flush; the in-memory tokens keep working meanwhile
+            logger.error("Refresh token write-behind failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void requeue(List<RefreshToken> rows) {
+        pendingLock.lock();
+        try {
+            for (RefreshToken row : rows) {
+                // Redeemed while its insert was failing: neither write is needed any more
+                if (!pendingDeletes.remove(row.getTokenHash())) {
+                    pendingInserts.putIfAbsent(row.getTokenHash(), row);
+                }
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    // A token redeemed before its insert was flushed never needs a row
+    private void markRedeemed(String tokenHash) {
+        pendingLock.lock();
+        try {
+            if (pendingInserts.remove(tokenHash) == null) {
+                pendingDeletes.add(tokenHash);
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Redeems a token that is not in a shard but has not reached the table yet,
+     * which happens past {@code maxInMemory}. Returns {@code null} when the
+     * token is not pending, and a rejected entry when it was already redeemed
+     * here and only its delete is pending.
+     */
+    private Entry redeemPending(String tokenHash) {
+        pendingLock.lock();
+        try {
+            if (pendingDeletes.contains(tokenHash)) {
+                return Entry.REJECTED;
+            }
+            RefreshToken row = pendingInserts.remove(tokenHash);
+            if (row == null) {
+                row = flushingInserts.get(tokenHash);
+                if (row == null) {
+                    return null;
+                }
+                // Its insert is in flight; delete it behind that
+                pendingDeletes.add(tokenHash);
+            }
+            return new Entry(row.getUserId(), row.getExpiresAt().getTime());
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private Entry redeemFromTable(String tokenHash) {
+        storeFallbackCounter.increment();
+        Optional<RefreshToken> row = refreshTokenRepository.findById(tokenHash);
+        // Single use across instances: only the caller whose delete removed the row may rotate
+        if (row.isEmpty() || refreshTokenRepository.deleteByTokenHash(tokenHash) != 1) {
+            return null;
+        }
+        return new Entry(row.get().getUserId(), row.get().getExpiresAt().getTime());
+    }
+
+    private void advance() {
+        try {
+            expire(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; log it and sweep again next tick
+            logger.error("Refresh token expiry sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sweeps the wheel slots of every tick that has fully elapsed by
+     * {@code now} and deletes expired rows from the table.
+     */
+    void expire(long now) {
+        long elapsedTick = now / wheelTickMs - 1;
+        for (Shard shard : shards) {
+            shard.expire(elapsedTick, now);
+        }
+        int purged = refreshTokenRepository.deleteExpired(new Date(now));
+        if (purged > 0) {
+            logger.debug("Deleted {} expired refresh tokens", purged);
+        }
+    }
+
+    private Shard shardFor(String tokenHash) {
+        int h = tokenHash.hashCode();
+        return shards[(h ^ (h >>> 16)) & (shards.length - 1)];
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        // Expired by construction, so redeem rejects it
+        private static final Entry REJECTED = new Entry(0, 0);
+
+        private final int userId;
+        private final long expiresAt;
+
+        private Entry(int userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // ReentrantLock rather than synchronized, so virtual threads waiting on a shard do not pin their carrier
+    private final class Shard {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final HashMap<String, Entry> entries = new HashMap<>();
+
+        private final Set<String>[] slots;
+
+        private long sweptThroughTick;
+
+        @SuppressWarnings("unchecked")
+        private Shard(int slotCount, long elapsedTick) {
+            slots = new Set[slotCount];
+            for (int i = 0; i < slotCount; i++) {
+                slots[i] = new HashSet<>();
+            }
+            sweptThroughTick = elapsedTick;
+        }
+
+        private void put(String tokenHash, Entry entry) {
+            lock.lock();
+            try {
+                if (entries.put(tokenHash, entry) == null) {
+                    inMemory.incrementAndGet();
+                }
+                slots[slotOf(entry.expiresAt / wheelTickMs)].add(tokenHash);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Entry redeem(String tokenHash) {
+            lock.lock();
+            try {
+                Entry entry = entries.remove(tokenHash);
+                if (entry != null) {
+                    slots[slotOf(entry.expiresAt / wheelTickMs)].remove(tokenHash);
+                    inMemory.decrementAndGet();
+                    // Still under the shard lock, so a concurrent replay that misses here finds it pending
+                    markRedeemed(tokenHash);
+                }
+                return entry;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void removeUser(int userId) {
+            lock.lock();
+            try {
+                Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Entry> next = iterator.next();
+                    if (next.getValue().userId == userId) {
+                        slots[slotOf(next.getValue().expiresAt / wheelTickMs)].remove(next.getKey());
+                        iterator.remove();
+                        inMemory.decrementAndGet();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void expire(long elapsedTick, long now) {
+            lock.lock();
+            try {
+                // After a long stall one full turn of the wheel covers every slot
+                long from = Math.max(sweptThroughTick + 1, elapsedTick - slots.length + 1);
+                for (long tick = from; tick <= elapsedTick; tick++) {
+                    slots[slotOf(tick)].removeIf(tokenHash -> {
+                        Entry entry = entries.get(tokenHash);
+                        if (entry == null) {
+                            return true;
+                        }
+                        if (entry.expiresAt > now) {
+                            // Due in a later turn of the wheel
+                            return false;
+                        }
+                        entries.remove(tokenHash);
+                        inMemory.decrementAndGet();
+                        return true;
+                    });
+                }
+                sweptThroughTick = Math.max(sweptThroughTick, elapsedTick);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int slotOf(long tick) {
+            return (int) Math.floorMod(tick, (long) slots.length);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.mykare.user_management.security.jwt;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Revoked access tokens, checked on every authenticated request without going
+ * to the database. Two kinds of entry are kept:
+ * - single tokens by {@code jti}, for logout, until the token's own expiry;
+ * - a revoked-before time per user, for account removal. Every token of the
+ *   user issued at or before that second is rejected for
+ *   {@code jwtExpirationMs}, by which time they have all expired anyway.
+ *
+ * Both are recorded in exact concurrent maps and in a Bloom filter. Nearly all
+ * requests carry tokens that were never revoked. For those the filter answers
+ * "absent" from a few bit reads, with no map lookup and no allocation, and only
+ * a filter hit goes on to the exact maps. A Bloom filter cannot forget, so it
+ * is split into two generations of {@code jwtExpirationMs} each. New entries
+ * go into the current generation, both generations are queried, and the older
+ * one is dropped at each turn. Every entry has then been queryable for at
+ * least as long as the tokens it revokes can live.
+ *
+ * Entries are held in memory on each instance; revocations are not shared
+ * between instances.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final int HASH_FUNCTIONS = 4;
+
+    // Keeps user-id keys apart from jti keys in the shared filter
+    private static final long USER_KEY_SEED = 0x9E3779B97F4A7C15L;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.jwtExpirationMs}")
+    private int jwtExpirationMs;
+
+    @Value("${annular.app.jwtRevocationMaxEntries:10000}")
+    private int maxEntries;
+
+    @Value("${annular.app.jwtRevocationBloomBits:1048576}")
+    private int bloomBits;
+
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Integer, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    private volatile Generations generations;
+
+    private Counter bloomHitCounter;
+
+    private Counter revokedCounter;
+
+    @PostConstruct
+    public void init() {
+        // Power of two so bit positions are taken with a mask
+        int bits = Integer.highestOneBit(Math.max(64, bloomBits));
+        generations = new Generations(new BloomFilter(bits), new BloomFilter(bits),
+                System.currentTimeMillis() + jwtExpirationMs);
+
+        bloomHitCounter = meterRegistry.counter("jwt.revocation.bloom.hit");
+        revokedCounter = meterRegistry.counter("jwt.revocation.rejected");
+        meterRegistry.gaugeMapSize("jwt.revocation.entries", Tags.of("kind", "token"), revokedTokens);
+        meterRegistry.gaugeMapSize("jwt.revocation.entries", Tags.of("kind", "user"), revokedBefore);
+    }
+
+    /**
+     * Rejects one token until it expires, used on logout.
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokens.merge(tokenId, expiresAtMillis, Math::max);
+        current().add(tokenKey(tokenId));
+        checkSize();
+    }
+
+    /**
+     * Rejects every token issued to the user so far, used when the account is
+     * removed. Tokens issued later in the same second are rejected too.
+     */
+    public void revokeAll(Integer userId) {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        revokedBefore.merge(userId, nowSeconds, Math::max);
+        current().add(userKey(userId));
+        checkSize();
+    }
+
+    /**
+     * Whether the token has been revoked. A token without a {@code jti} is only
+     * checked against its user's revoked-before time.
+     */
+    public boolean isRevoked(Integer userId, String tokenId, long issuedAtSeconds) {
+        long now = System.currentTimeMillis();
+        Generations current = generations;
+        if (now >= current.rotateAtMillis) {
+            current = rotate(now);
+        }
+
+        if (tokenId != null) {
+            long key = tokenKey(tokenId);
+            if (current.mightContain(key)) {
+                bloomHitCounter.increment();
+                Long expiresAt = revokedTokens.get(tokenId);
+                if (expiresAt != null && expiresAt > now) {
+                    revokedCounter.increment();
+                    return true;
+                }
+            }
+        }
+
+        if (userId != null) {
+            long key = userKey(userId);
+            if (current.mightContain(key)) {
+                bloomHitCounter.increment();
+                Long before = revokedBefore.get(userId);
+                if (before != null && issuedAtSeconds <= before
+                        && before * 1000 + jwtExpirationMs > now) {
+                    revokedCounter.increment();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return revokedTokens.size() + revokedBefore.size();
+    }
+
+    private BloomFilter current() {
+        long now = System.currentTimeMillis();
+        Generations current = generations;
+        if (now >= current.rotateAtMillis) {
+            current = rotate(now);
+        }
+        return current.current;
+    }
+
+    private Generations rotate(long now) {
+        rotationLock.lock();
+        try {
+            Generations current = generations;
+            if (now < current.rotateAtMillis) {
+                // Another thread rotated first
+                return current;
+            }
+            // After an idle period longer than a generation, both filters are stale
+            BloomFilter previous = now - current.rotateAtMillis < jwtExpirationMs
+                    ? current.current : new BloomFilter(current.current.size());
+            Generations rotated = new Generations(new BloomFilter(previous.size()), previous, now + jwtExpirationMs);
+            generations = rotated;
+            purgeExpired(now);
+            return rotated;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private void checkSize() {
+        if (size() > maxEntries) {
+            purgeExpired(System.currentTimeMillis());
+            if (size() > maxEntries) {
+                // Still correct, but the filter fills up and more checks fall through to the maps
+                logger.warn("Token revocation list holds {} live entries, above annular.app.jwtRevocationMaxEntries",
+                        size());
+            }
+        }
+    }
+
+    private void purgeExpired(long now) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(before -> before * 1000 + jwtExpirationMs <= now);
+    }
+
+    // FNV-1a over the characters, then a final mix; reads the string in place
+    private static long tokenKey(String tokenId) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            hash ^= tokenId.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long userKey(int userId) {
+        return mix(userId ^ USER_KEY_SEED);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Generations {
+        private final BloomFilter current;
+        private final BloomFilter previous;
+        private final long rotateAtMillis;
+
+        private Generations(BloomFilter current, BloomFilter previous, long rotateAtMillis) {
+            this.current = current;
+            this.previous = previous;
+            this.rotateAtMillis = rotateAtMillis;
+        }
+
+        private boolean mightContain(long key) {
+            return current.mightContain(key) || previous.mightContain(key);
+        }
+    }
+
+    /**
+     * Lock-free Bloom filter over 64-bit keys, with bit positions derived by
+     * double hashing from the two halves of the key.
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int mask;
+
+        private BloomFilter(int bits) {
+            words = new AtomicLongArray(bits >>> 6);
+            mask = bits - 1;
+        }
+
+        private int size() {
+            return mask + 1;
+        }
+
+        private void add(long key) {
+            int h1 = (int) key;
+            int h2 = (int) (key >>> 32) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = (h1 + i * h2) & mask;
+                long bitMask = 1L << bit;
+                int word = bit >>> 6;
+                long current = words.get(word);
+                while ((current & bitMask) == 0 && !words.compareAndSet(word, current, current | bitMask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+
+        private boolean mightContain(long key) {
+            int h1 = (int) key;
+            int h2 = (int) (key >>> 32) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
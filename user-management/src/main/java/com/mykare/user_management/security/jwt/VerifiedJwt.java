@@ -0,0 +1,80 @@
+package com.mykare.user_management.security.jwt;
+
+import java.util.Date;
+
+import com.mykare.user_management.security.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked by
+ * {@link JwtUtils#verifyJwtToken(String)}, so they can be read repeatedly
+ * without parsing the token again.
+ */
+public class VerifiedJwt {
+
+    private final Claims claims;
+
+    VerifiedJwt(Claims claims) {
+        this.claims = claims;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public Integer getUserId() {
+        Number userId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        return userId != null ? userId.intValue() : null;
+    }
+
+    public String getUserName() {
+        return claims.get(JwtUtils.CLAIM_USER_NAME, String.class);
+    }
+
+    public String getUserEmailId() {
+        return claims.get(JwtUtils.CLAIM_USER_EMAIL_ID, String.class);
+    }
+
+    public String getUserType() {
+        return claims.get(JwtUtils.CLAIM_USER_TYPE, String.class);
+    }
+
+    public int getTokenVersion() {
+        Number tokenVersion = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Number.class);
+        return tokenVersion != null ? tokenVersion.intValue() : 0;
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * The {@code jti} claim, or {@code null} for tokens issued before tokens
+     * carried one.
+     */
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    /**
+     * The {@code iat} claim in epoch seconds, as signed, or 0 when absent.
+     * jjwt hands {@code iat} back as a {@link Date}, not as the signed number.
+     */
+    public long getIssuedAtSeconds() {
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() / 1000 : 0L;
+    }
+
+    /**
+     * Rebuilds the principal from the claims, or returns {@code null} for tokens
+     * issued before the claims carried the user id.
+     */
+    public UserDetailsImpl toUserDetails() {
+        Integer userId = getUserId();
+        if (userId == null) {
+            return null;
+        }
+        return UserDetailsImpl.fromClaims(userId, getUserName(), getUserEmailId(), getUserType(), getTokenVersion());
+    }
+}
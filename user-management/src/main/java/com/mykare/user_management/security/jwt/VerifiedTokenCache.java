@@ -0,0 +1,145 @@
+package com.mykare.user_management.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mykare.user_management.security.UserDetailsImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the
+ * SHA-256 digest of the token so raw bearer tokens are never held in memory.
+ *
+ * Each entry expires at the {@code exp} claim of its token, and the cache is
+ * size-bounded with Caffeine's W-TinyLFU eviction. Revocation is not cached:
+ * callers still check {@link TokenRevocationList} on every hit, using the
+ * claims kept here.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${annular.app.jwtCacheMaxEntries:100000}")
+    private long maxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, CachedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        return value.remainingNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return value.remainingNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * Returns the previously verified token, or {@code null} on a miss.
+     */
+    public CachedToken get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public CachedToken put(String token, VerifiedJwt verifiedJwt) {
+        CachedToken cachedToken = new CachedToken(verifiedJwt);
+        if (cachedToken.remainingNanos() > 0) {
+            cache.put(digest(token), cachedToken);
+        }
+        return cachedToken;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static final class CachedToken {
+        private final VerifiedJwt verifiedJwt;
+        private final UserDetailsImpl principal;
+        private final String tokenId;
+        private final long issuedAtSeconds;
+        private final long expiresAtMillis;
+
+        CachedToken(VerifiedJwt verifiedJwt) {
+            this.verifiedJwt = verifiedJwt;
+            this.principal = verifiedJwt.toUserDetails();
+            this.tokenId = verifiedJwt.getTokenId();
+            this.issuedAtSeconds = verifiedJwt.getIssuedAtSeconds();
+            this.expiresAtMillis = verifiedJwt.getExpiration() != null ? verifiedJwt.getExpiration().getTime() : 0L;
+        }
+
+        public VerifiedJwt getVerifiedJwt() {
+            return verifiedJwt;
+        }
+
+        /**
+         * Principal rebuilt from the claims, {@code null} for tokens without a user id.
+         */
+        public UserDetailsImpl getPrincipal() {
+            return principal;
+        }
+
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        public long getIssuedAtSeconds() {
+            return issuedAtSeconds;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public boolean isExpired() {
+            return expiresAtMillis <= System.currentTimeMillis();
+        }
+
+        private long remainingNanos() {
+            return Math.max(0L, TimeUnit.MILLISECONDS.toNanos(expiresAtMillis - System.currentTimeMillis()));
+        }
+    }
+}
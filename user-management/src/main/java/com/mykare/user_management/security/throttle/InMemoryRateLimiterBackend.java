@@ -0,0 +1,118 @@
+package com.mykare.user_management.security.throttle;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Lock-free token buckets kept in a fixed number of hash shards.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival
+ * time (GCRA). A request is allowed when {@code tat + nanosPerToken - now} does
+ * not exceed {@code capacity * nanosPerToken}, and it moves the TAT forward by
+ * one interval with a CAS. This is a token bucket whose refill decays
+ * continuously rather than per fixed window.
+ *
+ * Memory is bounded per shard. When a shard grows past its cap, buckets that
+ * have refilled completely are dropped first, because a full bucket behaves
+ * exactly like a missing one. If that is not enough, arbitrary buckets are
+ * evicted down to 90% of the cap and counted in {@code login.throttle.evicted}.
+ */
+@Component
+@ConditionalOnProperty(name = "annular.app.login.throttle.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiterBackend implements RateLimiterBackend {
+
+    private final Map<String, AtomicLong>[] shards;
+
+    private final int shardMask;
+
+    private final int maxEntriesPerShard;
+
+    private final LongSupplier clock;
+
+    private Counter evictedCounter;
+
+    @Autowired
+    public InMemoryRateLimiterBackend(@Value("${annular.app.login.throttle.shards:16}") int shards,
+                                      @Value("${annular.app.login.throttle.maxEntries:100000}") int maxEntries,
+                                      MeterRegistry meterRegistry) {
+        this(shards, maxEntries, System::nanoTime);
+        evictedCounter = meterRegistry.counter("login.throttle.evicted");
+        meterRegistry.gauge("login.throttle.buckets", this, InMemoryRateLimiterBackend::size);
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryRateLimiterBackend(int shards, int maxEntries, LongSupplier clock) {
+        int shardCount = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+        this.shards = new Map[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = shardCount - 1;
+        this.maxEntriesPerShard = Math.max(1, maxEntries / shardCount);
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, long nanosPerToken) {
+        Map<String, AtomicLong> shard = shardFor(key);
+        long now = clock.getAsLong();
+        AtomicLong bucket = shard.get(key);
+        if (bucket == null) {
+            if (shard.size() >= maxEntriesPerShard) {
+                evict(shard, now);
+            }
+            bucket = shard.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        long burst = capacity * nanosPerToken;
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + nanosPerToken;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Map<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private Map<String, AtomicLong> shardFor(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private void evict(Map<String, AtomicLong> shard, long now) {
+        shard.values().removeIf(bucket -> bucket.get() <= now);
+        int target = maxEntriesPerShard - Math.max(1, maxEntriesPerShard / 10);
+        Iterator<AtomicLong> iterator = shard.values().iterator();
+        while (shard.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            if (evictedCounter != null) {
+                evictedCounter.increment();
+            }
+        }
+    }
+}
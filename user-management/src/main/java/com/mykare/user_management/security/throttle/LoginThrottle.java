@@ -0,0 +1,91 @@
+package com.mykare.user_management.security.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mykare.user_management.util.EmailAddresses;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admits login attempts per source IP and per email before any database or
+ * BCrypt work is done. The IP bucket is checked first so a single client
+ * spraying many emails is stopped without creating a bucket per email.
+ */
+@Component
+public class LoginThrottle {
+
+    @Autowired
+    private RateLimiterBackend rateLimiterBackend;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.login.throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${annular.app.login.throttle.ipCapacity:20}")
+    private int ipCapacity;
+
+    @Value("${annular.app.login.throttle.ipRefillMs:3000}")
+    private long ipRefillMs;
+
+    @Value("${annular.app.login.throttle.emailCapacity:5}")
+    private int emailCapacity;
+
+    @Value("${annular.app.login.throttle.emailRefillMs:60000}")
+    private long emailRefillMs;
+
+    private Counter allowedCounter;
+
+    private Counter ipRejectedCounter;
+
+    private Counter emailRejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        allowedCounter = meterRegistry.counter("login.throttle.allowed");
+        ipRejectedCounter = meterRegistry.counter("login.throttle.rejected", "scope", "ip");
+        emailRejectedCounter = meterRegistry.counter("login.throttle.rejected", "scope", "email");
+    }
+
+    /**
+     * Takes one attempt from both the IP and the email bucket.
+     *
+     * @return 0 when the attempt may proceed, otherwise the whole seconds the
+     *         client should wait before retrying
+     */
+    public long tryAcquire(String emailId, String ipAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        if (ipAddress != null) {
+            long wait = rateLimiterBackend.tryAcquire("ip:" + ipAddress, ipCapacity,
+                    TimeUnit.MILLISECONDS.toNanos(ipRefillMs));
+            if (wait > 0) {
+                ipRejectedCounter.increment();
+                return toRetryAfterSeconds(wait);
+            }
+        }
+        if (emailId != null) {
+            long wait = rateLimiterBackend.tryAcquire("email:" + EmailAddresses.normalize(emailId),
+                    emailCapacity, TimeUnit.MILLISECONDS.toNanos(emailRefillMs));
+            if (wait > 0) {
+                emailRejectedCounter.increment();
+                return toRetryAfterSeconds(wait);
+            }
+        }
+        allowedCounter.increment();
+        return 0;
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,21 @@
+package com.mykare.user_management.security.throttle;
+
+/**
+ * Storage for per-key token buckets. The in-memory implementation serves a
+ * single instance; a shared store such as Redis can implement the same contract
+ * to throttle across instances.
+ */
+public interface RateLimiterBackend {
+
+    /**
+     * Takes one token from the bucket for {@code key}. A bucket holds at most
+     * {@code capacity} tokens and regains one every {@code nanosPerToken}.
+     *
+     * @return 0 when the token was granted, otherwise the nanoseconds until one
+     *         becomes available
+     */
+    long tryAcquire(String key, int capacity, long nanosPerToken);
+
+    /** Number of buckets currently held. */
+    long size();
+}
@@ -0,0 +1,17 @@
+package com.mykare.user_management.service;
+
+/**
+ * Resolves the country of an IP address. Implementations are selected with
+ * {@code annular.app.geo.provider}.
+ */
+public interface GeoLocationProvider {
+
+	String UNKNOWN_COUNTRY = "Unknown";
+
+	/**
+	 * Returns the country name, or {@link #UNKNOWN_COUNTRY} when the address
+	 * cannot be located. Throws when the lookup itself fails and may be retried.
+	 */
+	String getCountryFromIp(String ip);
+
+}
@@ -0,0 +1,32 @@
+package com.mykare.user_management.service;
+
+import org.springframework.http.ResponseEntity;
+
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.webModel.UserWebModel;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link UserService}, active under the
+ * {@code reactive} profile. No method blocks the calling thread. Database
+ * access goes through R2DBC, BCrypt runs on the password hashing pool and geo
+ * lookups go through WebClient. Responses carry the same bodies as the servlet
+ * stack, except that {@link #getAllUsers(UserDetailsImpl)} streams its rows.
+ */
+public interface ReactiveUserService {
+
+	Mono<ResponseEntity<?>> register(UserWebModel userWebModel, String ipAddress);
+
+	Mono<ResponseEntity<?>> login(UserWebModel userWebModel, String ipAddress);
+
+	/**
+	 * For admins, the body is a {@code Flux} of
+	 * {@link com.mykare.user_management.webModel.UserSummary} rows, fetched from
+	 * the database as the client consumes them.
+	 */
+	Mono<ResponseEntity<?>> getAllUsers(UserDetailsImpl requestingUser);
+
+	Mono<ResponseEntity<?>> deleteUserDetails(Integer userId, UserDetailsImpl requestingUser);
+
+}
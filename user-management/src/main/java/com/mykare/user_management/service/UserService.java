@@ -1,17 +1,28 @@
 package com.mykare.user_management.service;
 
+import java.util.Date;
+
 import org.springframework.http.ResponseEntity;
 
-import com.mykare.user_management.model.User;
+import com.mykare.user_management.security.UserDetailsImpl;
 import com.mykare.user_management.webModel.UserWebModel;
 
 public interface UserService {
 
 	
-	ResponseEntity<?> deleteUserDetails(Integer userId, String requestingUserEmail);
+	ResponseEntity<?> deleteUserDetails(Integer userId, UserDetailsImpl requestingUser);
+
+	ResponseEntity<?> getAllUsers(UserDetailsImpl requestingUser);
+
+	ResponseEntity<?> getUsersPage(UserDetailsImpl requestingUser, Integer cursor, Integer limit, String userType,
+			String country, Date createdFrom, Date createdTo);
 
-	ResponseEntity<?> getAllUsers(String requestingUserEmail);
+	ResponseEntity<?> searchUsers(UserDetailsImpl requestingUser, String query, Integer offset, Integer limit);
 
 	ResponseEntity<?> register(UserWebModel userWebModel, String ipAddress);
 
+	ResponseEntity<?> refreshToken(String refreshToken);
+
+	ResponseEntity<?> logout(String jwt, String refreshToken);
+
 }
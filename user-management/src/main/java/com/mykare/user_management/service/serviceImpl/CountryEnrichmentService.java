@@ -0,0 +1,243 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.mykare.user_management.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Fills in {@code User.country} after registration so the request never waits on
+ * a geolocation service.
+ *
+ * Registrations are put on a bounded queue and a single worker drains them in
+ * batches. Lookups are made once per distinct IP in a batch, and the results are
+ * written with one bulk update per IP. Failed lookups are retried with exponential
+ * backoff up to {@code annular.app.geo.maxAttempts}. When the queue is full the
+ * task is dropped and the user keeps an empty country.
+ *
+ * With {@code annular.app.threads.virtual} the worker is a virtual thread, and
+ * the distinct IPs of a batch are looked up concurrently, one virtual thread
+ * each, at most {@code annular.app.geo.lookupConcurrency} at a time.
+ */
+@Service
+public class CountryEnrichmentService {
+
+    public static final Logger logger = LoggerFactory.getLogger(CountryEnrichmentService.class);
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.geo.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${annular.app.geo.batchSize:50}")
+    private int batchSize;
+
+    @Value("${annular.app.geo.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${annular.app.geo.initialBackoffMs:500}")
+    private long initialBackoffMs;
+
+    @Value("${annular.app.geo.maxBackoffMs:30000}")
+    private long maxBackoffMs;
+
+    @Value("${annular.app.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    @Value("${annular.app.geo.lookupConcurrency:8}")
+    private int lookupConcurrency;
+
+    private BlockingQueue<EnrichmentTask> queue;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private Thread worker;
+
+    private ExecutorService lookupExecutor;
+
+    private Semaphore lookupPermits;
+
+    private volatile boolean running;
+
+    private Counter droppedCounter;
+
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "country-enrichment-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gaugeCollectionSize("geo.enrichment.queue.size", Tags.empty(), queue);
+        droppedCounter = meterRegistry.counter("geo.enrichment.dropped");
+        failedCounter = meterRegistry.counter("geo.enrichment.failed");
+
+        running = true;
+        if (virtualThreads) {
+            lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            lookupPermits = new Semaphore(lookupConcurrency);
+            worker = Thread.ofVirtual().name("country-enrichment").start(this::drainLoop);
+        } else {
+            worker = new Thread(this::drainLoop, "country-enrichment");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        retryScheduler.shutdownNow();
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules the country lookup for a freshly saved user. Never blocks.
+     */
+    public void enqueue(Integer userId, String ipAddress) {
+        if (userId == null || ipAddress == null) {
+            return;
+        }
+        offer(new EnrichmentTask(userId, ipAddress, 1));
+    }
+
+    private void offer(EnrichmentTask task) {
+        if (!queue.offer(task)) {
+            droppedCounter.increment();
+            logger.warn("Country enrichment queue is full, skipping user {}", task.userId);
+        }
+    }
+
+    private void drainLoop() {
+        List<EnrichmentTask> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                EnrichmentTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Country enrichment batch failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<EnrichmentTask> batch) throws InterruptedException {
+        Map<String, List<EnrichmentTask>> tasksByIp = new LinkedHashMap<>();
+        for (EnrichmentTask task : batch) {
+            tasksByIp.computeIfAbsent(task.ipAddress, ip -> new ArrayList<>()).add(task);
+        }
+
+        if (lookupExecutor == null) {
+            for (Map.Entry<String, List<EnrichmentTask>> entry : tasksByIp.entrySet()) {
+                enrich(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+
+        List<Future<?>> lookups = new ArrayList<>(tasksByIp.size());
+        for (Map.Entry<String, List<EnrichmentTask>> entry : tasksByIp.entrySet()) {
+            lookupPermits.acquire();
+            lookups.add(lookupExecutor.submit(() -> {
+                try {
+                    enrich(entry.getKey(), entry.getValue());
+                } finally {
+                    lookupPermits.release();
+                }
+            }));
+        }
+        for (Future<?> lookup : lookups) {
+            try {
+                lookup.get();
+            } catch (ExecutionException e) {
+                logger.error("Country enrichment lookup failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void enrich(String clientIp, List<EnrichmentTask> tasks) {
+        try {
+            String ipAddress = locationService.resolveLookupAddress(clientIp);
+            String country = locationService.getCountryFromIp(ipAddress);
+
+            List<Integer> userIds = new ArrayList<>(tasks.size());
+            for (EnrichmentTask task : tasks) {
+                userIds.add(task.userId);
+            }
+            userRepository.updateLocation(userIds, ipAddress, country);
+        } catch (Exception e) {
+            logger.warn("Country lookup for {} failed: {}", clientIp, e.getMessage());
+            for (EnrichmentTask task : tasks) {
+                retry(task);
+            }
+        }
+    }
+
+    private void retry(EnrichmentTask task) {
+        if (task.attempt >= maxAttempts) {
+            failedCounter.increment();
+            logger.error("Giving up country lookup for user {} after {} attempts", task.userId, task.attempt);
+            return;
+        }
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(task.attempt - 1, 20));
+        EnrichmentTask next = new EnrichmentTask(task.userId, task.ipAddress, task.attempt + 1);
+        retryScheduler.schedule(() -> offer(next), backoffMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class EnrichmentTask {
+        private final Integer userId;
+        private final String ipAddress;
+        private final int attempt;
+
+        private EnrichmentTask(Integer userId, String ipAddress, int attempt) {
+            this.userId = userId;
+            this.ipAddress = ipAddress;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.mykare.user_management.service.GeoLocationProvider;
+
+/**
+ * Looks countries up on ip-api.com. This is the default provider.
+ */
+@Service
+@ConditionalOnProperty(name = "annular.app.geo.provider", havingValue = "ipapi", matchIfMissing = true)
+public class IpApiGeoLocationProvider implements GeoLocationProvider {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${annular.app.geo.ipApiUrl:http://ip-api.com/json/}")
+    private String ipApiUrl;
+
+    public IpApiGeoLocationProvider(RestTemplateBuilder restTemplateBuilder,
+                                    @Value("${annular.app.geo.connectTimeoutMs:2000}") long connectTimeoutMs,
+                                    @Value("${annular.app.geo.readTimeoutMs:3000}") long readTimeoutMs) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
+
+    @Override
+    public String getCountryFromIp(String ip) {
+        String url = ipApiUrl + ip;
+        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        Object country = response != null ? response.get("country") : null;
+        return country != null ? country.toString() : UNKNOWN_COUNTRY;
+    }
+}
@@ -0,0 +1,314 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.mykare.user_management.util.IpAddresses;
+
+/**
+ * Immutable IP-range-to-country table held in sorted primitive arrays.
+ *
+ * IPv4 ranges are stored as unsigned 32-bit bounds in {@code int[]}, IPv6 ranges
+ * as pairs of {@code long[]}, and countries as a {@code short} index into a
+ * deduplicated name table. A lookup is a binary search over the range starts and
+ * allocates nothing.
+ *
+ * The CSV source accepts one range per line, either {@code cidr,country} or
+ * {@code start,end,country}, for both address families. Blank lines, lines
+ * starting with {@code #} and lines whose first field is not an address (such
+ * as a header) are skipped. Ranges are expected not to overlap.
+ */
+public final class IpRangeTable {
+
+    private static final ThreadLocal<long[]> IPV6_BUFFER = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final int[] v4Starts;
+    private final int[] v4Ends;
+    private final short[] v4Countries;
+
+    private final long[] v6StartsHi;
+    private final long[] v6StartsLo;
+    private final long[] v6EndsHi;
+    private final long[] v6EndsLo;
+    private final short[] v6Countries;
+
+    private final String[] countries;
+
+    private IpRangeTable(int[] v4Starts, int[] v4Ends, short[] v4Countries, long[] v6StartsHi, long[] v6StartsLo,
+                         long[] v6EndsHi, long[] v6EndsLo, short[] v6Countries, String[] countries) {
+        this.v4Starts = v4Starts;
+        this.v4Ends = v4Ends;
+        this.v4Countries = v4Countries;
+        this.v6StartsHi = v6StartsHi;
+        this.v6StartsLo = v6StartsLo;
+        this.v6EndsHi = v6EndsHi;
+        this.v6EndsLo = v6EndsLo;
+        this.v6Countries = v6Countries;
+        this.countries = countries;
+    }
+
+    public static IpRangeTable load(Path csv) throws IOException {
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    public static IpRangeTable load(Reader source) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            builder.addLine(line);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the country of an IPv4 or IPv6 literal, or {@code null} when the
+     * address is not covered by the table or is not a literal.
+     */
+    public String lookup(String ip) {
+        long ipv4 = IpAddresses.parseIpv4(ip);
+        if (ipv4 >= 0) {
+            return lookupIpv4((int) ipv4);
+        }
+        long[] ipv6 = IPV6_BUFFER.get();
+        if (IpAddresses.parseIpv6(ip, ipv6)) {
+            return lookupIpv6(ipv6[0], ipv6[1]);
+        }
+        return null;
+    }
+
+    public String lookupIpv4(int address) {
+        int low = 0;
+        int high = v4Starts.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(v4Starts[mid], address) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (candidate >= 0 && Integer.compareUnsigned(address, v4Ends[candidate]) <= 0) {
+            return countries[v4Countries[candidate]];
+        }
+        return null;
+    }
+
+    public String lookupIpv6(long hi, long lo) {
+        int low = 0;
+        int high = v6StartsHi.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare128(v6StartsHi[mid], v6StartsLo[mid], hi, lo) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (candidate >= 0 && compare128(hi, lo, v6EndsHi[candidate], v6EndsLo[candidate]) <= 0) {
+            return countries[v6Countries[candidate]];
+        }
+        return null;
+    }
+
+    public int ipv4RangeCount() {
+        return v4Starts.length;
+    }
+
+    public int ipv6RangeCount() {
+        return v6StartsHi.length;
+    }
+
+    private static int compare128(long aHi, long aLo, long bHi, long bLo) {
+        int high = Long.compareUnsigned(aHi, bHi);
+        return high != 0 ? high : Long.compareUnsigned(aLo, bLo);
+    }
+
+    private static final class Builder {
+
+        private final Map<String, Short> countryIndex = new HashMap<>();
+        private String[] countries = new String[64];
+
+        private int v4Size;
+        private int[] v4Starts = new int[1024];
+        private int[] v4Ends = new int[1024];
+        private short[] v4Countries = new short[1024];
+
+        private int v6Size;
+        private long[] v6StartsHi = new long[256];
+        private long[] v6StartsLo = new long[256];
+        private long[] v6EndsHi = new long[256];
+        private long[] v6EndsLo = new long[256];
+        private short[] v6Countries = new short[256];
+
+        private final long[] start = new long[2];
+        private final long[] end = new long[2];
+
+        void addLine(String line) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+                return;
+            }
+            // The country is always the last column and may itself contain commas
+            int firstComma = trimmed.indexOf(',');
+            if (firstComma < 0) {
+                return;
+            }
+            String first = unquote(trimmed.substring(0, firstComma));
+            int slash = first.indexOf('/');
+            if (slash >= 0) {
+                addCidr(first.substring(0, slash), first.substring(slash + 1),
+                        unquote(trimmed.substring(firstComma + 1)));
+                return;
+            }
+            int secondComma = trimmed.indexOf(',', firstComma + 1);
+            if (secondComma > 0) {
+                addRange(first, unquote(trimmed.substring(firstComma + 1, secondComma)),
+                        unquote(trimmed.substring(secondComma + 1)));
+            }
+        }
+
+        private void addCidr(String address, String prefixText, String country) {
+            int prefix;
+            try {
+                prefix = Integer.parseInt(prefixText);
+            } catch (NumberFormatException e) {
+                return;
+            }
+            long ipv4 = IpAddresses.parseIpv4(address);
+            if (ipv4 >= 0) {
+                if (prefix < 0 || prefix > 32) {
+                    return;
+                }
+                long mask = prefix == 0 ? 0L : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+                long first = ipv4 & mask;
+                addIpv4((int) first, (int) (first | (~mask & 0xFFFFFFFFL)), country);
+            } else if (IpAddresses.parseIpv6(address, start)) {
+                if (prefix < 0 || prefix > 128) {
+                    return;
+                }
+                long maskHi = prefix >= 64 ? -1L : (prefix == 0 ? 0L : -1L << (64 - prefix));
+                long maskLo = prefix <= 64 ? 0L : (prefix == 128 ? -1L : -1L << (128 - prefix));
+                long firstHi = start[0] & maskHi;
+                long firstLo = start[1] & maskLo;
+                addIpv6(firstHi, firstLo, firstHi | ~maskHi, firstLo | ~maskLo, country);
+            }
+        }
+
+        private void addRange(String from, String to, String country) {
+            long firstV4 = IpAddresses.parseIpv4(from);
+            long lastV4 = IpAddresses.parseIpv4(to);
+            if (firstV4 >= 0 && lastV4 >= firstV4) {
+                addIpv4((int) firstV4, (int) lastV4, country);
+            } else if (IpAddresses.parseIpv6(from, start) && IpAddresses.parseIpv6(to, end)
+                    && compare128(start[0], start[1], end[0], end[1]) <= 0) {
+                addIpv6(start[0], start[1], end[0], end[1], country);
+            }
+        }
+
+        private void addIpv4(int first, int last, String country) {
+            if (v4Size == v4Starts.length) {
+                v4Starts = Arrays.copyOf(v4Starts, v4Size * 2);
+                v4Ends = Arrays.copyOf(v4Ends, v4Size * 2);
+                v4Countries = Arrays.copyOf(v4Countries, v4Size * 2);
+            }
+            v4Starts[v4Size] = first;
+            v4Ends[v4Size] = last;
+            v4Countries[v4Size] = countryIndex(country);
+            v4Size++;
+        }
+
+        private void addIpv6(long firstHi, long firstLo, long lastHi, long lastLo, String country) {
+            if (v6Size == v6StartsHi.length) {
+                v6StartsHi = Arrays.copyOf(v6StartsHi, v6Size * 2);
+                v6StartsLo = Arrays.copyOf(v6StartsLo, v6Size * 2);
+                v6EndsHi = Arrays.copyOf(v6EndsHi, v6Size * 2);
+                v6EndsLo = Arrays.copyOf(v6EndsLo, v6Size * 2);
+                v6Countries = Arrays.copyOf(v6Countries, v6Size * 2);
+            }
+            v6StartsHi[v6Size] = firstHi;
+            v6StartsLo[v6Size] = firstLo;
+            v6EndsHi[v6Size] = lastHi;
+            v6EndsLo[v6Size] = lastLo;
+            v6Countries[v6Size] = countryIndex(country);
+            v6Size++;
+        }
+
+        private short countryIndex(String country) {
+            Short index = countryIndex.get(country);
+            if (index == null) {
+                if (countryIndex.size() == Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct countries in IP range dataset");
+                }
+                index = (short) countryIndex.size();
+                if (index == countries.length) {
+                    countries = Arrays.copyOf(countries, countries.length * 2);
+                }
+                countries[index] = country;
+                countryIndex.put(country, index);
+            }
+            return index;
+        }
+
+        IpRangeTable build() {
+            // Sort IPv4 rows by unsigned start; the sign flip makes signed long order match
+            long[] v4Order = new long[v4Size];
+            for (int i = 0; i < v4Size; i++) {
+                v4Order[i] = ((long) (v4Starts[i] ^ Integer.MIN_VALUE) << 32) | i;
+            }
+            Arrays.sort(v4Order);
+            int[] sortedV4Starts = new int[v4Size];
+            int[] sortedV4Ends = new int[v4Size];
+            short[] sortedV4Countries = new short[v4Size];
+            for (int i = 0; i < v4Size; i++) {
+                int row = (int) v4Order[i];
+                sortedV4Starts[i] = v4Starts[row];
+                sortedV4Ends[i] = v4Ends[row];
+                sortedV4Countries[i] = v4Countries[row];
+            }
+
+            Integer[] v6Order = new Integer[v6Size];
+            for (int i = 0; i < v6Size; i++) {
+                v6Order[i] = i;
+            }
+            Arrays.sort(v6Order, (a, b) -> compare128(v6StartsHi[a], v6StartsLo[a], v6StartsHi[b], v6StartsLo[b]));
+            long[] sortedStartsHi = new long[v6Size];
+            long[] sortedStartsLo = new long[v6Size];
+            long[] sortedEndsHi = new long[v6Size];
+            long[] sortedEndsLo = new long[v6Size];
+            short[] sortedV6Countries = new short[v6Size];
+            for (int i = 0; i < v6Size; i++) {
+                int row = v6Order[i];
+                sortedStartsHi[i] = v6StartsHi[row];
+                sortedStartsLo[i] = v6StartsLo[row];
+                sortedEndsHi[i] = v6EndsHi[row];
+                sortedEndsLo[i] = v6EndsLo[row];
+                sortedV6Countries[i] = v6Countries[row];
+            }
+
+            return new IpRangeTable(sortedV4Starts, sortedV4Ends, sortedV4Countries, sortedStartsHi, sortedStartsLo,
+                    sortedEndsHi, sortedEndsLo, sortedV6Countries, Arrays.copyOf(countries, countryIndex.size()));
+        }
+
+        private static String unquote(String field) {
+            String value = field.trim();
+            if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                return value.substring(1, value.length() - 1);
+            }
+            return value;
+        }
+    }
+}
@@ -1,24 +1,198 @@
 package com.mykare.user_management.service.serviceImpl;
 
-import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mykare.user_management.service.GeoLocationProvider;
+import com.mykare.user_management.util.IpAddresses;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Entry point for geolocation. Country lookups go through a cache keyed by
+ * network prefix ({@code /24} for IPv4 and {@code /48} for IPv6 by default), so
+ * registrations from the same office or carrier NAT share one provider call.
+ * "Unknown" results are cached too, for a shorter time.
+ *
+ * Provider and ipify calls are made outside the cache rather than in a
+ * {@code get(key, loader)} loader. A loader runs inside the cache's map compute,
+ * which holds a monitor, and a blocking HTTP call there would pin the carrier
+ * of a virtual thread. Two concurrent misses on one prefix may therefore both
+ * call the provider.
+ */
 @Service
 public class LocationService {
+
+    private static final String PUBLIC_IP_KEY = "self";
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    @Autowired
+    private GeoLocationProvider geoLocationProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.geo.resolveLoopback:true}")
+    private boolean resolveLoopback;
+
+    @Value("${annular.app.geo.cache.ipv4PrefixLength:24}")
+    private int ipv4PrefixLength;
+
+    @Value("${annular.app.geo.cache.ipv6PrefixLength:48}")
+    private int ipv6PrefixLength;
+
+    @Value("${annular.app.geo.cache.maxEntries:100000}")
+    private long maxEntries;
+
+    @Value("${annular.app.geo.cache.ttlMinutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${annular.app.geo.cache.negativeTtlMinutes:5}")
+    private long negativeTtlMinutes;
+
+    @Value("${annular.app.geo.cache.publicIpTtlMinutes:10}")
+    private long publicIpTtlMinutes;
+
+    private Cache<String, String> countryCache;
+
+    private Cache<String, String> publicIpCache;
+
+    private Timer lookupTimer;
+
+    public LocationService(RestTemplateBuilder restTemplateBuilder,
+                           @Value("${annular.app.geo.connectTimeoutMs:2000}") long connectTimeoutMs,
+                           @Value("${annular.app.geo.readTimeoutMs:3000}") long readTimeoutMs) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        long positiveTtlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        long negativeTtlNanos = TimeUnit.MINUTES.toNanos(negativeTtlMinutes);
+        countryCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, String>() {
+                    @Override
+                    public long expireAfterCreate(String key, String country, long currentTime) {
+                        return GeoLocationProvider.UNKNOWN_COUNTRY.equals(country) ? negativeTtlNanos : positiveTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, String country, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, country, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, String country, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        publicIpCache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(publicIpTtlMinutes, TimeUnit.MINUTES)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, countryCache, "geo.country");
+        lookupTimer = Timer.builder("geo.lookup")
+                .description("Country lookups that missed the cache and went to the geo provider")
+                .register(meterRegistry);
+    }
+
+    public static boolean isLoopback(String ipAddress) {
+        return "0:0:0:0:0:0:0:1".equals(ipAddress) || "127.0.0.1".equals(ipAddress);
+    }
+    
+    /**
+     * Returns the address to locate for a client. Loopback clients are located by
+     * the server's public address unless that lookup is disabled, as it must be in
+     * deployments without internet access.
+     */
+    public String resolveLookupAddress(String ipAddress) {
+        return resolveLoopback && isLoopback(ipAddress) ? getIpAddress() : ipAddress;
+    }
     
+    /**
+     * Returns the server's public address, asking api.ipify.org at most once per
+     * {@code annular.app.geo.cache.publicIpTtlMinutes}.
+     */
     public String getIpAddress() {
-        String response = restTemplate.getForObject("https://api.ipify.org?format=json", String.class);
-        // Simple parsing since the response is in format {"ip":"xxx.xxx.xxx.xxx"}
-        return response.substring(response.indexOf(":\"") + 2, response.indexOf("\"}"));
+        String ipAddress = publicIpCache.getIfPresent(PUBLIC_IP_KEY);
+        if (ipAddress == null) {
+            String response = restTemplate.getForObject("https://api.ipify.org?format=json", String.class);
+            // Simple parsing since the response is in format {"ip":"xxx.xxx.xxx.xxx"}
+            ipAddress = response.substring(response.indexOf(":\"") + 2, response.indexOf("\"}"));
+            publicIpCache.put(PUBLIC_IP_KEY, ipAddress);
+        }
+        return ipAddress;
     }
     
     public String getCountryFromIp(String ip) {
-        String url = "http://ip-api.com/json/" + ip;
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-        return response != null ? (String) response.get("country") : "Unknown";
+        String key = prefixKey(ip);
+        String country = countryCache.getIfPresent(key);
+        if (country == null) {
+            country = lookupTimer.record(() -> geoLocationProvider.getCountryFromIp(ip));
+            countryCache.put(key, country);
+        }
+        return country;
+    }
+
+    /**
+     * Returns the cached country for the address's network prefix, or
+     * {@code null} on a miss. Used with {@link #cacheCountry(String, String)} by
+     * callers that do the provider call themselves, such as the reactive client.
+     */
+    public String getCachedCountry(String ip) {
+        return countryCache.getIfPresent(prefixKey(ip));
+    }
+
+    public void cacheCountry(String ip, String country) {
+        countryCache.put(prefixKey(ip), country);
+    }
+
+    public String getCachedPublicIp() {
+        return publicIpCache.getIfPresent(PUBLIC_IP_KEY);
+    }
+
+    public void cachePublicIp(String ipAddress) {
+        publicIpCache.put(PUBLIC_IP_KEY, ipAddress);
+    }
+
+    /**
+     * Masks the address down to the configured network prefix. Text that is not
+     * an IP literal is used as its own key.
+     */
+    String prefixKey(String ip) {
+        long ipv4 = IpAddresses.parseIpv4(ip);
+        if (ipv4 >= 0) {
+            long mask = ipv4PrefixLength == 0 ? 0L : (0xFFFFFFFFL << (32 - ipv4PrefixLength)) & 0xFFFFFFFFL;
+            return "4:" + Long.toHexString(ipv4 & mask);
+        }
+        long[] ipv6 = new long[2];
+        if (IpAddresses.parseIpv6(ip, ipv6)) {
+            long maskHi = ipv6PrefixLength >= 64 ? -1L : (ipv6PrefixLength == 0 ? 0L : -1L << (64 - ipv6PrefixLength));
+            long maskLo = ipv6PrefixLength <= 64 ? 0L
+                    : (ipv6PrefixLength == 128 ? -1L : -1L << (128 - ipv6PrefixLength));
+            return "6:" + Long.toHexString(ipv6[0] & maskHi) + ":" + Long.toHexString(ipv6[1] & maskLo);
+        }
+        return ip;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.mykare.user_management.service.GeoLocationProvider;
+
+/**
+ * Looks countries up in a local IP range dataset, so no network call is made.
+ * Enable with {@code annular.app.geo.provider=offline} and point
+ * {@code annular.app.geo.offlineDatasetPath} at a CSV file in the format read by
+ * {@link IpRangeTable}.
+ */
+@Service
+@ConditionalOnProperty(name = "annular.app.geo.provider", havingValue = "offline")
+public class OfflineGeoLocationProvider implements GeoLocationProvider {
+
+    public static final Logger logger = LoggerFactory.getLogger(OfflineGeoLocationProvider.class);
+
+    @Value("${annular.app.geo.offlineDatasetPath}")
+    private String datasetPath;
+
+    private IpRangeTable ipRangeTable;
+
+    @PostConstruct
+    public void load() throws IOException {
+        long start = System.nanoTime();
+        ipRangeTable = IpRangeTable.load(Paths.get(datasetPath));
+        logger.info("Loaded {} IPv4 and {} IPv6 ranges from {} in {} ms", ipRangeTable.ipv4RangeCount(),
+                ipRangeTable.ipv6RangeCount(), datasetPath, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public String getCountryFromIp(String ip) {
+        String country = ipRangeTable.lookup(ip);
+        return country != null ? country : UNKNOWN_COUNTRY;
+    }
+}
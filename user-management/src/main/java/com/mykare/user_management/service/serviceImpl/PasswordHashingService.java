@@ -0,0 +1,223 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The application's {@link PasswordEncoder}. BCrypt work runs on a fixed pool
+ * sized to the CPU count with a bounded queue, so a registration or login spike
+ * cannot put more hashes in flight than there are cores. When the queue is full,
+ * callers get a {@link SaturatedException} straight away and are told to retry.
+ *
+ * Unless {@code annular.app.password.cost} is set, the BCrypt cost is calibrated
+ * at startup. It is the highest cost whose hash fits within
+ * {@code annular.app.password.targetMillis} on this machine. Stored hashes with a
+ * lower cost are reported by {@link #upgradeEncoding(String)}, so Spring Security
+ * rehashes them on the next successful login.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+    public static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.password.threads:0}")
+    private int threads;
+
+    @Value("${annular.app.password.queueCapacity:64}")
+    private int queueCapacity;
+
+    @Value("${annular.app.password.cost:0}")
+    private int fixedCost;
+
+    @Value("${annular.app.password.minCost:10}")
+    private int minCost;
+
+    @Value("${annular.app.password.maxCost:14}")
+    private int maxCost;
+
+    @Value("${annular.app.password.targetMillis:250}")
+    private long targetMillis;
+
+    @Value("${annular.app.password.retryAfterSeconds:1}")
+    private int retryAfterSeconds;
+
+    private ThreadPoolExecutor pool;
+
+    private BCryptPasswordEncoder encoder;
+
+    private int cost;
+
+    private Timer encodeTimer;
+
+    private Timer verifyTimer;
+
+    private Timer waitTimer;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void start() {
+        cost = fixedCost > 0 ? fixedCost : calibrateCost();
+        encoder = new BCryptPasswordEncoder(cost);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        encodeTimer = meterRegistry.timer("password.hash", "operation", "encode");
+        verifyTimer = meterRegistry.timer("password.hash", "operation", "verify");
+        // Time spent queued for a hashing thread; grows before password.hash.rejected does
+        waitTimer = meterRegistry.timer("password.hash.wait");
+        rejectedCounter = meterRegistry.counter("password.hash.rejected");
+        meterRegistry.gaugeCollectionSize("password.hash.queue.size", Tags.empty(), pool.getQueue());
+        logger.info("Password hashing uses BCrypt cost {} on {} threads", cost, poolSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(matchesAsync(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return submit(verifyTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes on the calling thread. For callers that already bound their own
+     * concurrency, such as bulk import, and must not compete with interactive
+     * requests for the pool.
+     */
+    public String encodeDirect(CharSequence rawPassword) {
+        return encodeTimer.record(() -> encoder.encode(rawPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.record(work);
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new SaturatedException(retryAfterSeconds);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private int calibrateCost() {
+        long baseMillis = measureMillis(minCost);
+        int candidate = minCost;
+        long millis = baseMillis;
+        // Each cost step doubles the work
+        while (candidate < maxCost && millis * 2 <= targetMillis) {
+            candidate++;
+            millis *= 2;
+        }
+        logger.info("Calibrated BCrypt cost {} for a {} ms target (cost {} took {} ms)", candidate, targetMillis,
+                minCost, baseMillis);
+        return candidate;
+    }
+
+    private static long measureMillis(int cost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        // The first run pays for class loading and JIT warm-up, so keep the fastest of a few
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+
+    /**
+     * Thrown when the hashing queue is full. Controllers answer with
+     * {@code 503 Service Unavailable} and a {@code Retry-After} header.
+     */
+    public static class SaturatedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int retryAfterSeconds;
+
+        public SaturatedException(int retryAfterSeconds) {
+            super("Password hashing queue is full");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
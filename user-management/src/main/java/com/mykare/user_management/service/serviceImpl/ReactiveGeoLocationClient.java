@@ -0,0 +1,115 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mykare.user_management.service.GeoLocationProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Non-blocking counterpart of {@link LocationService} for the reactive profile.
+ * ip-api.com and api.ipify.org are called through {@link WebClient}. The offline
+ * and stub providers answer from memory and are called directly. Results go
+ * into the prefix cache of {@link LocationService}, so both stacks call the
+ * provider equally often.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveGeoLocationClient {
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private GeoLocationProvider geoLocationProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.geo.provider:ipapi}")
+    private String provider;
+
+    @Value("${annular.app.geo.ipApiUrl:http://ip-api.com/json/}")
+    private String ipApiUrl;
+
+    @Value("${annular.app.geo.resolveLoopback:true}")
+    private boolean resolveLoopback;
+
+    private final WebClient webClient;
+
+    private Timer lookupTimer;
+
+    public ReactiveGeoLocationClient(WebClient.Builder webClientBuilder,
+                                     @Value("${annular.app.geo.connectTimeoutMs:2000}") long connectTimeoutMs,
+                                     @Value("${annular.app.geo.readTimeoutMs:3000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        this.webClient = webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    @PostConstruct
+    public void init() {
+        // Same meter as LocationService, so dashboards work for either stack
+        lookupTimer = meterRegistry.timer("geo.lookup");
+    }
+
+    /** See {@link LocationService#resolveLookupAddress(String)}. */
+    public Mono<String> resolveLookupAddress(String ipAddress) {
+        if (!resolveLoopback || !LocationService.isLoopback(ipAddress)) {
+            return Mono.just(ipAddress);
+        }
+        String cached = locationService.getCachedPublicIp();
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return webClient.get().uri("https://api.ipify.org?format=json")
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(body -> {
+                    String publicIp = String.valueOf(body.get("ip"));
+                    locationService.cachePublicIp(publicIp);
+                    return publicIp;
+                });
+    }
+
+    /** See {@link LocationService#getCountryFromIp(String)}. */
+    public Mono<String> getCountryFromIp(String ip) {
+        String cached = locationService.getCachedCountry(ip);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return lookup(ip).doFinally(signal -> sample.stop(lookupTimer));
+        }).doOnNext(country -> locationService.cacheCountry(ip, country));
+    }
+
+    private Mono<String> lookup(String ip) {
+        if (!"ipapi".equals(provider)) {
+            return Mono.fromCallable(() -> geoLocationProvider.getCountryFromIp(ip));
+        }
+        return webClient.get().uri(ipApiUrl + ip)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(body -> {
+                    Object country = body.get("country");
+                    return country != null ? country.toString() : GeoLocationProvider.UNKNOWN_COUNTRY;
+                })
+                .defaultIfEmpty(GeoLocationProvider.UNKNOWN_COUNTRY);
+    }
+}
@@ -0,0 +1,230 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.mykare.user_management.Response;
+import com.mykare.user_management.logging.LogMarkers;
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.repository.ReactiveUserRepository;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.JwtResponse;
+import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.TokenRevocationList;
+import com.mykare.user_management.security.throttle.LoginThrottle;
+import com.mykare.user_management.service.ReactiveUserService;
+import com.mykare.user_management.util.EmailAddresses;
+import com.mykare.user_management.webModel.UserWebModel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * {@link ReactiveUserService} on R2DBC. Country enrichment runs after the
+ * response has been sent, as with {@link CountryEnrichmentService}. It retries
+ * with the same backoff settings, and new lookups are dropped while
+ * {@code annular.app.geo.queueCapacity} are already in flight.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+	public static final Logger logger = LoggerFactory.getLogger(ReactiveUserServiceImpl.class);
+
+	@Autowired
+	ReactiveUserRepository userRepository;
+
+	@Autowired
+	private ReactiveGeoLocationClient geoLocationClient;
+
+	@Autowired
+	private PasswordHashingService passwordHashingService;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private TokenRevocationList tokenRevocationList;
+
+	@Autowired
+	private LoginThrottle loginThrottle;
+
+	@Autowired
+	private UserSearchIndex userSearchIndex;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${annular.app.reactive.fetchSize:200}")
+	private int fetchSize;
+
+	@Value("${annular.app.geo.queueCapacity:10000}")
+	private int enrichmentCapacity;
+
+	@Value("${annular.app.geo.maxAttempts:5}")
+	private int maxAttempts;
+
+	@Value("${annular.app.geo.initialBackoffMs:500}")
+	private long initialBackoffMs;
+
+	@Value("${annular.app.geo.maxBackoffMs:30000}")
+	private long maxBackoffMs;
+
+	private final AtomicInteger enrichmentsInFlight = new AtomicInteger();
+
+	private Counter droppedCounter;
+
+	private Counter failedCounter;
+
+	@PostConstruct
+	public void init() {
+		droppedCounter = meterRegistry.counter("geo.enrichment.dropped");
+		failedCounter = meterRegistry.counter("geo.enrichment.failed");
+	}
+
+	@Override
+	public Mono<ResponseEntity<?>> register(UserWebModel userWebModel, String ipAddress) {
+		User newUser = new User();
+		newUser.setUserName(userWebModel.getUserName());
+		newUser.setEmailId(userWebModel.getEmailId());
+		// Hibernate fills this in @PrePersist; R2DBC inserts have to do it themselves
+		newUser.setEmailIdNormalized(EmailAddresses.normalize(userWebModel.getEmailId()));
+		newUser.setGender(userWebModel.getGender());
+		newUser.setUserType(userWebModel.getUserType());
+		newUser.setTokenVersion(0);
+		newUser.setIpAddress(ipAddress);
+
+		return Mono.fromFuture(() -> passwordHashingService.encodeAsync(userWebModel.getPassword()))
+				.flatMap(hash -> {
+					newUser.setPassword(hash);
+					// The unique index on the normalized email rejects duplicates
+					return userRepository.insert(newUser);
+				})
+				.<ResponseEntity<?>>map(userId -> {
+					userSearchIndex.add(userId, newUser.getUserName(), newUser.getEmailId());
+					enrichCountry(userId, ipAddress);
+					return ResponseEntity.ok(new Response(1, "success", "User registered successfully!"));
+				})
+				.onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(ResponseEntity.badRequest()
+						.body(new Response(0, "fail", "Email already in use. Please use a different email."))));
+	}
+
+	@Override
+	public Mono<ResponseEntity<?>> login(UserWebModel userWebModel, String ipAddress) {
+		// Rejected before the user lookup and the BCrypt compare
+		long retryAfterSeconds = loginThrottle.tryAcquire(userWebModel.getEmailId(), ipAddress);
+		if (retryAfterSeconds > 0) {
+			logger.info(LogMarkers.HOT_PATH, "Login throttled for {} from {}", userWebModel.getEmailId(), ipAddress);
+			return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+					.body(new Response(-1, "Fail", "Too many login attempts, please retry later.")));
+		}
+
+		String emailIdNormalized = EmailAddresses.normalize(userWebModel.getEmailId());
+		Mono<User> user = emailIdNormalized == null ? Mono.empty()
+				: userRepository.findByEmailIdNormalized(emailIdNormalized);
+		return user
+				.flatMap(found -> Mono.fromFuture(
+						() -> passwordHashingService.matchesAsync(userWebModel.getPassword(), found.getPassword()))
+						.flatMap(matches -> matches ? loginSucceeded(found, userWebModel.getPassword())
+								: loginFailed("bad_credentials", HttpStatus.UNAUTHORIZED)))
+				.switchIfEmpty(Mono.defer(() -> loginFailed("unknown_email", HttpStatus.BAD_REQUEST)));
+	}
+
+	private Mono<ResponseEntity<?>> loginSucceeded(User user, String rawPassword) {
+		UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+		String jwt = jwtUtils.generateJwtToken(userDetails);
+		logger.info(LogMarkers.HOT_PATH, "Login successful for user: {}", user.getEmailId());
+		ResponseEntity<?> response = ResponseEntity.ok(new JwtResponse(jwt, userDetails.getId(), 1, null));
+
+		if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+			return Mono.just(response);
+		}
+		// Same rehash-on-login as DaoAuthenticationProvider on the servlet stack
+		return Mono.fromFuture(() -> passwordHashingService.encodeAsync(rawPassword))
+				.flatMap(hash -> userRepository.updatePassword(user.getUserId(), hash))
+				.doOnNext(updated -> logger.info("Rehashed password for user {} at the current cost", user.getUserId()))
+				.thenReturn(response);
+	}
+
+	private Mono<ResponseEntity<?>> loginFailed(String cause, HttpStatus status) {
+		meterRegistry.counter("user.login.failed", "cause", cause).increment();
+		if ("bad_credentials".equals(cause)) {
+			logger.info(LogMarkers.HOT_PATH, "Login failed: Invalid credentials");
+		}
+		return Mono.just(ResponseEntity.status(status).body(new Response(-1, "Fail", "Invalid email or password")));
+	}
+
+	@Override
+	public Mono<ResponseEntity<?>> getAllUsers(UserDetailsImpl requestingUser) {
+		// Check if the requesting user is an admin
+		if (requestingUser == null || !requestingUser.isAdmin()) {
+			return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+					.body(new Response(0, "Fail", "Access denied. Only admin users can fetch all users.")));
+		}
+
+		// Demand from the HTTP response is passed to the driver in batches of fetchSize rows
+		return Mono.just(ResponseEntity.ok(userRepository.findAllSummaries().limitRate(fetchSize)));
+	}
+
+	@Override
+	public Mono<ResponseEntity<?>> deleteUserDetails(Integer userId, UserDetailsImpl requestingUser) {
+		// Check if requesting user is an admin
+		if (requestingUser == null || !requestingUser.isAdmin()) {
+			return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+					.body(new Response(0, "Fail", "Access denied. Only admin users can delete accounts.")));
+		}
+
+		return userRepository.deleteById(userId).flatMap(deleted -> {
+			if (deleted == 0) {
+				return Mono.<ResponseEntity<?>>just(
+						ResponseEntity.status(HttpStatus.NOT_FOUND).body(new Response(0, "Fail", "User not found.")));
+			}
+			userSearchIndex.remove(userId);
+			// Tokens already issued to the user are otherwise valid until they expire
+			tokenRevocationList.revokeAll(userId);
+			return userRepository.deleteRefreshTokens(userId).<ResponseEntity<?>>thenReturn(
+					ResponseEntity.ok(new Response(1, "Success", "User deleted successfully.")));
+		});
+	}
+
+	/**
+	 * Looks the country up and stores it without holding up the response. A
+	 * failed lookup or update is retried with exponential backoff; after
+	 * {@code annular.app.geo.maxAttempts} the user keeps an empty country.
+	 */
+	private void enrichCountry(Integer userId, String ipAddress) {
+		if (enrichmentsInFlight.incrementAndGet() > enrichmentCapacity) {
+			enrichmentsInFlight.decrementAndGet();
+			droppedCounter.increment();
+			logger.warn("Country enrichment is saturated, dropping lookup for user {}", userId);
+			return;
+		}
+		Mono.defer(() -> geoLocationClient.resolveLookupAddress(ipAddress))
+				.flatMap(lookupAddress -> geoLocationClient.getCountryFromIp(lookupAddress)
+						.flatMap(country -> userRepository.updateLocation(userId, lookupAddress, country)))
+				.retryWhen(Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(initialBackoffMs))
+						.maxBackoff(Duration.ofMillis(maxBackoffMs)))
+				.doFinally(signal -> enrichmentsInFlight.decrementAndGet())
+				.subscribe(updated -> {
+				}, e -> {
+					failedCounter.increment();
+					logger.warn("Country lookup for user {} failed: {}", userId, e.getMessage());
+				});
+	}
+}
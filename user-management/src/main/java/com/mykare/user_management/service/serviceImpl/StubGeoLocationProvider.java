@@ -0,0 +1,24 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.mykare.user_management.service.GeoLocationProvider;
+
+/**
+ * Answers every lookup with a fixed country and never leaves the process. Meant
+ * for tests and local load runs; enable with {@code annular.app.geo.provider=stub}.
+ */
+@Service
+@ConditionalOnProperty(name = "annular.app.geo.provider", havingValue = "stub")
+public class StubGeoLocationProvider implements GeoLocationProvider {
+
+    @Value("${annular.app.geo.stubCountry:Unknown}")
+    private String stubCountry;
+
+    @Override
+    public String getCountryFromIp(String ip) {
+        return stubCountry;
+    }
+}
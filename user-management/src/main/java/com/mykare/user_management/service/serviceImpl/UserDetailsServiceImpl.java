@@ -2,22 +2,29 @@ package com.mykare.user_management.service.serviceImpl;
 
 import java.util.Optional;
 
+import javax.annotation.PostConstruct;
+
 
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.mykare.user_management.logging.LogMarkers;
 import com.mykare.user_management.model.User;
 import com.mykare.user_management.repository.UserRepository;
 import com.mykare.user_management.security.UserDetailsImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     public static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
     private static final String CARET = "^";
@@ -26,20 +33,47 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepo;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer loadTimer;
+
+    @PostConstruct
+    public void init() {
+        loadTimer = meterRegistry.timer("user.details.load");
+    }
+
    
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        logger.info("I am from loadUserByUsername() !!! ");
+        return loadTimer.record(() -> loadUser(email));
+    }
+
+    private UserDetails loadUser(String email) {
       // logger.info("Email :- {}, UserType from LoginConstants :- {}", email, loginConstants.getUserType());
         email = email.contains(CARET) ? email.split(ESCAPED_CARET)[0] : email;
         Optional<User> optionalUser = userRepo.findByEmailId(email);
         if (optionalUser.isPresent()) {
             User user = optionalUser.get();
-            logger.info("User from DB --> {} -- {} -- {}", user.getUserId(), user.getEmailId(), user.getUserType());
+            logger.debug(LogMarkers.HOT_PATH, "User from DB --> {} -- {} -- {}", user.getUserId(), user.getEmailId(),
+                    user.getUserType());
             return UserDetailsImpl.build(user);
         } else {
             throw new UsernameNotFoundException("User Not Found with email: " + email);
         }
     }
+
+    /**
+     * Stores a hash recomputed at the current BCrypt cost. Called by Spring
+     * Security after a successful login whose stored hash needed an upgrade.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) user;
+        userRepo.updatePassword(userDetails.getId(), newPassword);
+        logger.info("Rehashed password for user {} at the current cost", userDetails.getId());
+        return new UserDetailsImpl(userDetails.getId(), userDetails.getUsername(), userDetails.getUserEmailId(),
+                userDetails.getUserType(), userDetails.getTokenVersion(), newPassword, userDetails.getAuthorities());
+    }
 }
\ No newline at end of file
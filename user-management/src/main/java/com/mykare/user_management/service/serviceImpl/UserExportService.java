@@ -0,0 +1,139 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.util.CsvUtils;
+import com.mykare.user_management.webModel.UserSummary;
+
+/**
+ * Writes the users table to an output stream row by row. Rows come from a
+ * forward-only cursor over {@link UserRepository#streamAllSummaries()} and are
+ * encoded as they are read, so memory use does not depend on the table size.
+ */
+@Service
+public class UserExportService {
+
+	public static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	private static final String[] CSV_HEADER = { "userId", "emailId", "userName", "gender", "userType", "country",
+			"userIsActive", "userCreatedOn" };
+
+	public enum Format {
+		NDJSON("application/x-ndjson", "ndjson"),
+		CSV("text/csv", "csv");
+
+		private final String contentType;
+		private final String extension;
+
+		Format(String contentType, String extension) {
+			this.contentType = contentType;
+			this.extension = extension;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Streams every user to {@code out} and returns the number of rows written.
+	 * The read-only transaction keeps the JDBC cursor open for the whole export.
+	 * {@code out} is flushed but not closed.
+	 */
+	@Transactional(readOnly = true)
+	public long export(Format format, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+		long rows;
+		try (Stream<UserSummary> users = userRepository.streamAllSummaries()) {
+			rows = format == Format.CSV ? writeCsv(users.iterator(), writer) : writeNdjson(users.iterator(), writer);
+		}
+		writer.flush();
+		logger.info("Exported {} users as {}", rows, format);
+		return rows;
+	}
+
+	private long writeCsv(Iterator<UserSummary> users, Writer writer) throws IOException {
+		CsvUtils.writeRow(writer, CSV_HEADER);
+		long rows = 0;
+		while (users.hasNext()) {
+			UserSummary user = users.next();
+			// Text columns hold user input; keep spreadsheets from evaluating it as formulas
+			CsvUtils.writeRow(writer, toText(user.getUserId()), CsvUtils.neutralizeFormula(user.getEmailId()),
+					CsvUtils.neutralizeFormula(user.getUserName()), CsvUtils.neutralizeFormula(user.getGender()),
+					CsvUtils.neutralizeFormula(user.getUserType()), CsvUtils.neutralizeFormula(user.getCountry()),
+					toText(user.getUserIsActive()), toText(user.getUserCreatedOn()));
+			rows++;
+		}
+		return rows;
+	}
+
+	private long writeNdjson(Iterator<UserSummary> users, Writer writer) throws IOException {
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.setRootValueSeparator(null);
+		long rows = 0;
+		while (users.hasNext()) {
+			UserSummary user = users.next();
+			generator.writeStartObject();
+			if (user.getUserId() != null) {
+				generator.writeNumberField("userId", user.getUserId());
+			} else {
+				generator.writeNullField("userId");
+			}
+			generator.writeStringField("emailId", user.getEmailId());
+			generator.writeStringField("userName", user.getUserName());
+			generator.writeStringField("gender", user.getGender());
+			generator.writeStringField("userType", user.getUserType());
+			generator.writeStringField("country", user.getCountry());
+			if (user.getUserIsActive() != null) {
+				generator.writeBooleanField("userIsActive", user.getUserIsActive());
+			} else {
+				generator.writeNullField("userIsActive");
+			}
+			generator.writeStringField("userCreatedOn", toText(user.getUserCreatedOn()));
+			generator.writeEndObject();
+			generator.writeRaw('\n');
+			rows++;
+		}
+		generator.flush();
+		return rows;
+	}
+
+	private static String toText(Object value) {
+		return value == null ? null : value.toString();
+	}
+
+	private static String toText(Date value) {
+		return value == null ? null : DateTimeFormatter.ISO_INSTANT.format(value.toInstant());
+	}
+}
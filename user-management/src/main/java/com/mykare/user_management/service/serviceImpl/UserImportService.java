@@ -0,0 +1,296 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.util.CsvUtils;
+import com.mykare.user_management.util.EmailAddresses;
+import com.mykare.user_management.webModel.ImportReport;
+import com.mykare.user_management.webModel.ImportRowResult;
+import com.mykare.user_management.webModel.UserWebModel;
+
+/**
+ * Creates users in bulk from a streamed JSON or CSV body.
+ *
+ * Records are read one at a time and handled in chunks of
+ * {@code annular.app.import.chunkSize}. Emails repeated within the upload are
+ * caught by an in-memory set, and emails already in the database by one
+ * {@code IN} query per chunk. Passwords are hashed in parallel on a bounded
+ * pool of the import's own, so a large upload does not take the interactive
+ * hashing pool away from logins, and each chunk is inserted in its own transaction so Hibernate can send
+ * it as JDBC batches. A failed chunk is reported row by row and does not undo
+ * earlier chunks.
+ *
+ * Imported users have no IP address, so no country lookup is scheduled.
+ */
+@Service
+public class UserImportService {
+
+	public static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+	public enum Format {
+		JSON, CSV
+	}
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	PasswordHashingService passwordHashingService;
+
+	@Autowired
+	UserSearchIndex userSearchIndex;
+
+	@Value("${annular.app.import.chunkSize:500}")
+	private int chunkSize;
+
+	@Value("${annular.app.import.hashThreads:0}")
+	private int hashThreads;
+
+	@Value("${annular.app.import.hashQueueCapacity:1000}")
+	private int hashQueueCapacity;
+
+	private ThreadPoolExecutor hashPool;
+
+	private TransactionTemplate transactionTemplate;
+
+	@PostConstruct
+	public void start() {
+		int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadNumber = new AtomicInteger();
+		// When the queue is full the importing thread hashes the password itself, which throttles the reader
+		hashPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(hashQueueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@PreDestroy
+	public void stop() {
+		hashPool.shutdownNow();
+	}
+
+	/**
+	 * Imports every record in {@code body}. JSON may be a top-level array or a
+	 * sequence of objects such as NDJSON. CSV needs a header row naming the
+	 * {@link UserWebModel} fields. A malformed record is reported as invalid and
+	 * stops the import; the records before it are still imported.
+	 */
+	public ImportReport importUsers(Format format, InputStream body) throws IOException {
+		RecordSource source = format == Format.CSV ? csvSource(body) : jsonSource(body);
+		ImportReport report = new ImportReport();
+		Set<String> seenEmails = new HashSet<>();
+		List<PendingRow> chunk = new ArrayList<>(chunkSize);
+		long row = 0;
+
+		while (true) {
+			UserWebModel record;
+			try {
+				record = source.next();
+			} catch (IOException e) {
+				report.add(new ImportRowResult(row + 1, null, ImportRowResult.Status.INVALID, null,
+						"Malformed record, import stopped: " + e.getMessage()));
+				break;
+			}
+			if (record == null) {
+				break;
+			}
+			row++;
+
+			String emailId = record.getEmailId() == null ? null : record.getEmailId().trim();
+			if (emailId == null || emailId.isEmpty() || record.getPassword() == null || record.getPassword().isEmpty()) {
+				report.add(new ImportRowResult(row, emailId, ImportRowResult.Status.INVALID, null,
+						"emailId and password are required"));
+				continue;
+			}
+			if (!seenEmails.add(EmailAddresses.normalize(emailId))) {
+				report.add(new ImportRowResult(row, emailId, ImportRowResult.Status.DUPLICATE_IN_FILE, null,
+						"Email appears earlier in the import"));
+				continue;
+			}
+			record.setEmailId(emailId);
+			chunk.add(new PendingRow(row, record));
+			if (chunk.size() == chunkSize) {
+				importChunk(chunk, report);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, report);
+		}
+
+		report.getRows().sort(Comparator.comparingLong(ImportRowResult::getRow));
+		logger.info("User import finished: {} imported, {} skipped, {} failed", report.getImported(),
+				report.getSkipped(), report.getFailed());
+		return report;
+	}
+
+	private void importChunk(List<PendingRow> chunk, ImportReport report) {
+		Set<String> existing = new HashSet<>(userRepository.findExistingEmailIds(
+				chunk.stream().map(pending -> EmailAddresses.normalize(pending.record.getEmailId()))
+						.collect(Collectors.toList())));
+
+		List<PendingRow> toInsert = new ArrayList<>(chunk.size());
+		for (PendingRow pending : chunk) {
+			if (existing.contains(EmailAddresses.normalize(pending.record.getEmailId()))) {
+				report.add(new ImportRowResult(pending.row, pending.record.getEmailId(),
+						ImportRowResult.Status.ALREADY_EXISTS, null, "Email already in use"));
+			} else {
+				toInsert.add(pending);
+			}
+		}
+		if (toInsert.isEmpty()) {
+			return;
+		}
+
+		List<CompletableFuture<String>> hashes = toInsert.stream()
+				.map(pending -> CompletableFuture.supplyAsync(
+						() -> passwordHashingService.encodeDirect(pending.record.getPassword()), hashPool))
+				.collect(Collectors.toList());
+
+		List<PendingRow> hashed = new ArrayList<>(toInsert.size());
+		List<User> users = new ArrayList<>(toInsert.size());
+		for (int i = 0; i < toInsert.size(); i++) {
+			PendingRow pending = toInsert.get(i);
+			String password;
+			try {
+				password = hashes.get(i).join();
+			} catch (CompletionException e) {
+				logger.warn("User import row {} could not be hashed: {}", pending.row, e.getCause().getMessage());
+				report.add(new ImportRowResult(pending.row, pending.record.getEmailId(),
+						ImportRowResult.Status.FAILED, null, "Password hashing failed"));
+				continue;
+			}
+			UserWebModel record = pending.record;
+			User user = new User();
+			user.setUserName(record.getUserName());
+			user.setEmailId(record.getEmailId());
+			user.setGender(record.getGender());
+			user.setUserType(record.getUserType());
+			user.setTokenVersion(0);
+			user.setPassword(password);
+			hashed.add(pending);
+			users.add(user);
+		}
+		if (users.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+		} catch (RuntimeException e) {
+			logger.error("User import chunk of {} rows failed: {}", users.size(), e.getMessage(), e);
+			for (PendingRow pending : hashed) {
+				report.add(new ImportRowResult(pending.row, pending.record.getEmailId(),
+						ImportRowResult.Status.FAILED, null, "Batch insert failed"));
+			}
+			return;
+		}
+
+		for (int i = 0; i < hashed.size(); i++) {
+			PendingRow pending = hashed.get(i);
+			userSearchIndex.add(users.get(i).getUserId(), users.get(i).getUserName(), users.get(i).getEmailId());
+			report.add(new ImportRowResult(pending.row, pending.record.getEmailId(), ImportRowResult.Status.IMPORTED,
+					users.get(i).getUserId(), null));
+		}
+	}
+
+	private RecordSource jsonSource(InputStream body) throws IOException {
+		MappingIterator<UserWebModel> records = objectMapper.readerFor(UserWebModel.class).readValues(body);
+		return () -> records.hasNextValue() ? records.nextValue() : null;
+	}
+
+	private RecordSource csvSource(InputStream body) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+		List<String> header = CsvUtils.readRow(reader);
+		if (header == null) {
+			return () -> null;
+		}
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+		}
+		return () -> {
+			List<String> fields;
+			do {
+				fields = CsvUtils.readRow(reader);
+			} while (fields != null && fields.size() == 1 && fields.get(0).isEmpty());
+			if (fields == null) {
+				return null;
+			}
+			UserWebModel record = new UserWebModel();
+			record.setEmailId(field(fields, columns, "emailid"));
+			record.setPassword(field(fields, columns, "password"));
+			record.setUserName(field(fields, columns, "username"));
+			record.setGender(field(fields, columns, "gender"));
+			record.setUserType(field(fields, columns, "usertype"));
+			return record;
+		};
+	}
+
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null || index >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(index);
+		return value.isEmpty() ? null : value;
+	}
+
+	private interface RecordSource {
+		/** Returns the next record, or {@code null} when the body is exhausted. */
+		UserWebModel next() throws IOException;
+	}
+
+	private static final class PendingRow {
+		private final long row;
+		private final UserWebModel record;
+
+		private PendingRow(long row, UserWebModel record) {
+			this.row = row;
+			this.record = record;
+		}
+	}
+}
@@ -0,0 +1,779 @@
+package com.mykare.user_management.service.serviceImpl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.webModel.UserSummary;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * In-memory trigram index over user names and emails, for the admin search.
+ *
+ * Each user is given a document number in the order it is added, and every
+ * distinct trigram of its lower-cased name and email maps to a posting list of
+ * document numbers in a plain {@code int[]}. Posting lists are therefore sorted
+ * by construction, and a query is answered by intersecting the lists of its
+ * trigrams, starting from the shortest. Sharing every trigram does not make the
+ * query a substring, so candidates are checked against the stored text and
+ * ranked: exact match, then prefix of the field, then prefix of a word, then
+ * any other substring. Only the requested page is kept while ranking. The text
+ * of all documents is kept in one {@code char[]} in document order, so checking
+ * a candidate reads one region of memory rather than two strings. Search time
+ * still grows with the number of matches, since each one is checked and ranked.
+ *
+ * Queries of one or two characters have no trigram of their own. For those the
+ * start of every word is also indexed behind {@link #WORD_START} markers, so
+ * short queries match word prefixes only.
+ *
+ * The index is loaded from the users table in the background once the
+ * application is ready, and is kept current by register, import and delete on
+ * this instance, servlet or reactive. A removed or re-indexed user leaves a
+ * tombstone; once tombstones pass {@code annular.app.users.searchIndex.compactRatio}
+ * of the documents, a background pass copies the live documents into a fresh
+ * {@link Segment} and swaps it in.
+ *
+ * Users registered or deleted on other instances are only picked up when the
+ * index is rebuilt from the table, every
+ * {@code annular.app.users.searchIndex.rebuildMinutes}. Until then they are
+ * missing from the results, or left out of the page but still counted in the
+ * total. With the rebuild turned off, the index is only complete on a single
+ * instance. A rebuild or compaction briefly holds two segments in memory.
+ */
+@Component
+public class UserSearchIndex implements ApplicationListener<ApplicationReadyEvent> {
+
+	public static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+	// A control character, so marker grams never collide with text grams
+	private static final char WORD_START = '\u0002';
+
+	private static final int RANK_EXACT = 0;
+	private static final int RANK_PREFIX = 1;
+	private static final int RANK_WORD_PREFIX = 2;
+	private static final int RANK_SUBSTRING = 3;
+	private static final int NO_MATCH = 4;
+
+	// Below this many tombstones a compaction costs more than it frees
+	private static final int MIN_REMOVED_TO_COMPACT = 1024;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${annular.app.users.searchIndex.enabled:true}")
+	private boolean enabled;
+
+	@Value("${annular.app.users.searchIndex.rebuildMinutes:30}")
+	private long rebuildMinutes;
+
+	@Value("${annular.app.users.searchIndex.compactRatio:0.25}")
+	private double compactRatio;
+
+	// Searches share the read lock; updates are rare and take the write lock
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Segment segment = new Segment();
+
+	// Adds (name and email) and removals (null) made while a new segment is built, replayed onto it
+	// before the swap. The initial load counts as a build from the start, so nothing is missed before it
+	private Map<Integer, String[]> changesDuringBuild = new HashMap<>();
+
+	private boolean compactionQueued;
+
+	private volatile boolean ready;
+
+	private ScheduledExecutorService maintenance;
+
+	private Timer searchTimer;
+
+	@PostConstruct
+	public void init() {
+		searchTimer = meterRegistry.timer("user.search");
+		meterRegistry.gauge("user.search.index.users", this, UserSearchIndex::size);
+		meterRegistry.gauge("user.search.index.removed", this, index -> index.segment.removedCount);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		if (!enabled) {
+			return;
+		}
+		// Loads, rebuilds and compactions run one at a time on this thread
+		maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "user-search-index");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maintenance.execute(this::load);
+		if (rebuildMinutes > 0) {
+			maintenance.scheduleWithFixedDelay(this::load, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (maintenance != null) {
+			maintenance.shutdownNow();
+		}
+	}
+
+	/**
+	 * Builds a new segment from every user in the table and swaps it in.
+	 * Register, import and delete keep updating the current segment while this
+	 * runs; {@link #search} answers once the first load has finished.
+	 */
+	void load() {
+		long started = System.nanoTime();
+		lock.writeLock().lock();
+		try {
+			if (changesDuringBuild == null) {
+				changesDuringBuild = new HashMap<>();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Segment loaded = new Segment();
+		try {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			transactionTemplate.setReadOnly(true);
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<UserSummary> users = userRepository.streamAllSummaries()) {
+					// Not shared until the swap, so no lock is needed
+					users.forEach(user -> loaded.add(user.getUserId(), lower(user.getUserName()),
+							lower(user.getEmailId())));
+				}
+			});
+		} catch (RuntimeException e) {
+			logger.error("Could not load the user search index: {}", e.getMessage(), e);
+			lock.writeLock().lock();
+			try {
+				// Before the first load the changes are still needed by the next attempt
+				if (ready) {
+					changesDuringBuild = null;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+			return;
+		}
+
+		swap(loaded);
+		logger.info("Indexed {} users for search in {} ms", loaded.liveCount,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+	}
+
+	/**
+	 * Copies the live documents of the current segment into a new one, dropping
+	 * tombstones from the posting lists and the text. Searches continue on the
+	 * current segment while the copy is made.
+	 */
+	void compact() {
+		Segment current;
+		lock.writeLock().lock();
+		try {
+			compactionQueued = false;
+			// A rebuild in progress replaces the segment anyway
+			if (changesDuringBuild != null || !needsCompaction()) {
+				return;
+			}
+			changesDuringBuild = new HashMap<>();
+			current = segment;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Segment compacted;
+		lock.readLock().lock();
+		try {
+			compacted = current.compacted();
+		} finally {
+			lock.readLock().unlock();
+		}
+		int removed = current.removedCount;
+		swap(compacted);
+		logger.debug("Compacted the user search index, dropping {} removed documents", removed);
+	}
+
+	/**
+	 * Indexes a new user, or re-indexes one whose name or email has changed.
+	 */
+	public void add(Integer userId, String userName, String emailId) {
+		if (!enabled || userId == null) {
+			return;
+		}
+		String name = lower(userName);
+		String email = lower(emailId);
+		lock.writeLock().lock();
+		try {
+			segment.add(userId, name, email);
+			if (changesDuringBuild != null) {
+				changesDuringBuild.put(userId, new String[] { name, email });
+			}
+			scheduleCompactionIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Integer userId) {
+		if (!enabled || userId == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			segment.remove(userId);
+			if (changesDuringBuild != null) {
+				changesDuringBuild.put(userId, null);
+			}
+			scheduleCompactionIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the user ids of one page of matches for {@code query} in rank
+	 * order, with the total number of matches. Returns {@code null} while the
+	 * index is loading or when it is disabled.
+	 */
+	public Hits search(String query, int offset, int limit) {
+		if (!ready) {
+			return null;
+		}
+		long started = System.nanoTime();
+		String normalized = lower(query.trim());
+		if (normalized.isEmpty()) {
+			return new Hits(new int[0], 0);
+		}
+		long[] grams = queryGrams(normalized);
+		lock.readLock().lock();
+		try {
+			return segment.collect(normalized, grams, offset, limit);
+		} finally {
+			lock.readLock().unlock();
+			searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	int size() {
+		return segment.liveCount;
+	}
+
+	int removedCount() {
+		return segment.removedCount;
+	}
+
+	private void swap(Segment built) {
+		lock.writeLock().lock();
+		try {
+			// Newer than anything the build read, so applied last
+			for (Map.Entry<Integer, String[]> change : changesDuringBuild.entrySet()) {
+				String[] fields = change.getValue();
+				if (fields == null) {
+					built.remove(change.getKey());
+				} else {
+					built.add(change.getKey(), fields[0], fields[1]);
+				}
+			}
+			changesDuringBuild = null;
+			segment = built;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Called under the write lock
+	private void scheduleCompactionIfNeeded() {
+		if (maintenance != null && !compactionQueued && changesDuringBuild == null && needsCompaction()) {
+			compactionQueued = true;
+			maintenance.execute(this::compact);
+		}
+	}
+
+	private boolean needsCompaction() {
+		int removed = segment.removedCount;
+		return removed >= MIN_REMOVED_TO_COMPACT && removed > compactRatio * segment.documentCount;
+	}
+
+	private static boolean matchesAt(char[] text, int index, String query) {
+		for (int j = 0; j < query.length(); j++) {
+			if (text[index + j] != query.charAt(j)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long[] queryGrams(String query) {
+		if (query.length() == 1) {
+			return new long[] { gram(WORD_START, WORD_START, query.charAt(0)) };
+		}
+		if (query.length() == 2) {
+			return new long[] { gram(WORD_START, query.charAt(0), query.charAt(1)) };
+		}
+		long[] grams = new long[query.length() - 2];
+		for (int i = 0; i < grams.length; i++) {
+			grams[i] = gram(query.charAt(i), query.charAt(i + 1), query.charAt(i + 2));
+		}
+		return grams;
+	}
+
+	// Distinct grams of both fields, so a document appears at most once per posting list
+	private static long[] documentGrams(String name, String email) {
+		long[] grams = new long[3 * (name.length() + email.length())];
+		int count = appendGrams(name, grams, 0);
+		count = appendGrams(email, grams, count);
+		Arrays.sort(grams, 0, count);
+		int distinct = 0;
+		for (int i = 0; i < count; i++) {
+			if (distinct == 0 || grams[i] != grams[distinct - 1]) {
+				grams[distinct++] = grams[i];
+			}
+		}
+		return Arrays.copyOf(grams, distinct);
+	}
+
+	private static int appendGrams(String field, long[] grams, int count) {
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (i + 2 < field.length()) {
+				grams[count++] = gram(c, field.charAt(i + 1), field.charAt(i + 2));
+			}
+			if (Character.isLetterOrDigit(c) && (i == 0 || !Character.isLetterOrDigit(field.charAt(i - 1)))) {
+				grams[count++] = gram(WORD_START, WORD_START, c);
+				if (i + 1 < field.length()) {
+					grams[count++] = gram(WORD_START, c, field.charAt(i + 1));
+				}
+			}
+		}
+		return count;
+	}
+
+	private static long gram(char first, char second, char third) {
+		return ((long) first << 32) | ((long) second << 16) | third;
+	}
+
+	private static String lower(String value) {
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * The documents, posting lists and text of one generation of the index.
+	 * Guarded by the index's lock once it has been swapped in.
+	 */
+	private static final class Segment {
+
+		private final HashMap<Long, IntList> postings = new HashMap<>();
+
+		private final IntIntMap documentByUserId = new IntIntMap();
+
+		private final BitSet removedDocuments = new BitSet();
+
+		private int[] userIds = new int[1024];
+
+		// Document d's name is text[nameStarts[d], emailStarts[d]), its email text[emailStarts[d], emailEnds[d])
+		private int[] nameStarts = new int[1024];
+
+		private int[] emailStarts = new int[1024];
+
+		private int[] emailEnds = new int[1024];
+
+		private char[] text = new char[64 * 1024];
+
+		private int textLength;
+
+		private int documentCount;
+
+		private int liveCount;
+
+		private int removedCount;
+
+		private void add(int userId, String name, String email) {
+			remove(userId);
+			addDocument(userId, name, email);
+		}
+
+		private void remove(int userId) {
+			int document = documentByUserId.remove(userId);
+			if (document >= 0) {
+				removedDocuments.set(document);
+				liveCount--;
+				removedCount++;
+			}
+		}
+
+		private Segment compacted() {
+			Segment compacted = new Segment();
+			for (int document = 0; document < documentCount; document++) {
+				if (!removedDocuments.get(document)) {
+					compacted.addDocument(userIds[document],
+							new String(text, nameStarts[document], emailStarts[document] - nameStarts[document]),
+							new String(text, emailStarts[document], emailEnds[document] - emailStarts[document]));
+				}
+			}
+			return compacted;
+		}
+
+		private void addDocument(int userId, String name, String email) {
+			int document = documentCount++;
+			if (document == userIds.length) {
+				int capacity = document + (document >>> 1);
+				userIds = Arrays.copyOf(userIds, capacity);
+				nameStarts = Arrays.copyOf(nameStarts, capacity);
+				emailStarts = Arrays.copyOf(emailStarts, capacity);
+				emailEnds = Arrays.copyOf(emailEnds, capacity);
+			}
+			int textNeeded = textLength + name.length() + email.length();
+			if (textNeeded > text.length) {
+				text = Arrays.copyOf(text, Math.max(text.length + (text.length >>> 1), textNeeded));
+			}
+			userIds[document] = userId;
+			nameStarts[document] = textLength;
+			name.getChars(0, name.length(), text, textLength);
+			textLength += name.length();
+			emailStarts[document] = textLength;
+			email.getChars(0, email.length(), text, textLength);
+			textLength += email.length();
+			emailEnds[document] = textLength;
+			documentByUserId.put(userId, document);
+			liveCount++;
+
+			for (long gram : documentGrams(name, email)) {
+				postings.computeIfAbsent(gram, key -> new IntList()).add(document);
+			}
+		}
+
+		private Hits collect(String query, long[] grams, int offset, int limit) {
+			IntList[] lists = new IntList[grams.length];
+			for (int i = 0; i < grams.length; i++) {
+				lists[i] = postings.get(grams[i]);
+				if (lists[i] == null) {
+					return new Hits(new int[0], 0);
+				}
+			}
+			Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+			int worstRank = query.length() < 3 ? RANK_WORD_PREFIX : RANK_SUBSTRING;
+			TopKeys top = new TopKeys((int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+			int[] cursors = new int[lists.length];
+			IntList shortest = lists[0];
+			int total = 0;
+
+			candidates:
+			for (int i = 0; i < shortest.size; i++) {
+				int document = shortest.values[i];
+				for (int j = 1; j < lists.length; j++) {
+					cursors[j] = lists[j].seek(document, cursors[j]);
+					if (cursors[j] == lists[j].size) {
+						break candidates;
+					}
+					if (lists[j].values[cursors[j]] != document) {
+						continue candidates;
+					}
+				}
+				if (removedDocuments.get(document)) {
+					continue;
+				}
+
+				int nameStart = nameStarts[document];
+				int emailStart = emailStarts[document];
+				int emailEnd = emailEnds[document];
+				int nameRank = rank(nameStart, emailStart, query, NO_MATCH);
+				int emailRank = nameRank == RANK_EXACT ? NO_MATCH : rank(emailStart, emailEnd, query, nameRank);
+				int rank = Math.min(nameRank, emailRank);
+				if (rank > worstRank) {
+					continue;
+				}
+				total++;
+				// Better rank first, then the shorter matching field, then the older user
+				int length = Math.min(nameRank <= emailRank ? emailStart - nameStart : emailEnd - emailStart, 0xFFFF);
+				top.offer(((long) rank << 48) | ((long) length << 32) | (userIds[document] & 0xFFFFFFFFL));
+			}
+
+			long[] ranked = top.sorted();
+			int from = Math.min(offset, ranked.length);
+			int[] page = new int[ranked.length - from];
+			for (int i = 0; i < page.length; i++) {
+				page[i] = (int) ranked[from + i];
+			}
+			return new Hits(page, total);
+		}
+
+		/**
+		 * Rank of the query within the field {@code text[from, to)}, or
+		 * {@link UserSearchIndex#NO_MATCH} unless it is better than {@code toBeat}. Once the other
+		 * field has matched this mostly avoids scanning, since exact and prefix
+		 * matches can only start at {@code from}.
+		 */
+		private int rank(int from, int to, String query, int toBeat) {
+			char[] text = this.text;
+			int length = query.length();
+			if (to - from >= length && matchesAt(text, from, query)) {
+				int rank = to - from == length ? RANK_EXACT : RANK_PREFIX;
+				return rank < toBeat ? rank : NO_MATCH;
+			}
+			if (toBeat <= RANK_WORD_PREFIX) {
+				return NO_MATCH;
+			}
+
+			char first = query.charAt(0);
+			int best = NO_MATCH;
+			for (int i = from + 1, last = to - length; i <= last; i++) {
+				if (text[i] != first || !matchesAt(text, i, query)) {
+					continue;
+				}
+				if (!Character.isLetterOrDigit(text[i - 1])) {
+					return RANK_WORD_PREFIX;
+				}
+				best = RANK_SUBSTRING;
+			}
+			return best < toBeat ? best : NO_MATCH;
+		}
+	}
+
+	/**
+	 * One page of search results: user ids in rank order and the number of
+	 * matches across all pages.
+	 */
+	public static final class Hits {
+		private final int[] userIds;
+		private final int total;
+
+		public Hits(int[] userIds, int total) {
+			this.userIds = userIds;
+			this.total = total;
+		}
+
+		public int[] getUserIds() {
+			return userIds;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+	}
+
+	private static final class IntList {
+		private int[] values = new int[4];
+		private int size;
+
+		private void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		/**
+		 * Index of the first value not less than {@code target}, at or after
+		 * {@code from}. Gallops ahead, then binary searches the last step.
+		 */
+		private int seek(int target, int from) {
+			if (from >= size || values[from] >= target) {
+				return from;
+			}
+			int low = from;
+			int step = 1;
+			while (low + step < size && values[low + step] < target) {
+				low += step;
+				step <<= 1;
+			}
+			int high = Math.min(low + step, size);
+			while (high - low > 1) {
+				int mid = (low + high) >>> 1;
+				if (values[mid] < target) {
+					low = mid;
+				} else {
+					high = mid;
+				}
+			}
+			return high;
+		}
+	}
+
+	/**
+	 * Bounded max-heap of sort keys that keeps the {@code capacity} smallest.
+	 */
+	private static final class TopKeys {
+		private final int capacity;
+		private long[] keys;
+		private int size;
+
+		private TopKeys(int capacity) {
+			this.capacity = capacity;
+			keys = new long[Math.min(capacity, 1024)];
+		}
+
+		private void offer(long key) {
+			if (size < capacity) {
+				if (size == keys.length) {
+					keys = Arrays.copyOf(keys, Math.min(capacity, size * 2));
+				}
+				keys[size] = key;
+				siftUp(size++);
+			} else if (key < keys[0]) {
+				keys[0] = key;
+				siftDown(0);
+			}
+		}
+
+		private long[] sorted() {
+			long[] sorted = Arrays.copyOf(keys, size);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+
+		private void siftUp(int index) {
+			long key = keys[index];
+			while (index > 0) {
+				int parent = (index - 1) >>> 1;
+				if (keys[parent] >= key) {
+					break;
+				}
+				keys[index] = keys[parent];
+				index = parent;
+			}
+			keys[index] = key;
+		}
+
+		private void siftDown(int index) {
+			long key = keys[index];
+			int half = size >>> 1;
+			while (index < half) {
+				int child = 2 * index + 1;
+				if (child + 1 < size && keys[child + 1] > keys[child]) {
+					child++;
+				}
+				if (key >= keys[child]) {
+					break;
+				}
+				keys[index] = keys[child];
+				index = child;
+			}
+			keys[index] = key;
+		}
+	}
+
+	/**
+	 * Open-addressing map from user id to document number, without boxing.
+	 * Returns -1 for a missing key.
+	 */
+	private static final class IntIntMap {
+		private static final int FREE = Integer.MIN_VALUE;
+
+		private int[] keys;
+		private int[] values;
+		private int size;
+
+		private IntIntMap() {
+			keys = new int[1024];
+			values = new int[1024];
+			Arrays.fill(keys, FREE);
+		}
+
+		private int get(int key) {
+			int mask = keys.length - 1;
+			for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+				if (keys[slot] == key) {
+					return values[slot];
+				}
+				if (keys[slot] == FREE) {
+					return -1;
+				}
+			}
+		}
+
+		private void put(int key, int value) {
+			if (2 * (size + 1) > keys.length) {
+				resize();
+			}
+			int mask = keys.length - 1;
+			int slot = slot(key, mask);
+			while (keys[slot] != FREE && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			if (keys[slot] == FREE) {
+				size++;
+			}
+			keys[slot] = key;
+			values[slot] = value;
+		}
+
+		private int remove(int key) {
+			int mask = keys.length - 1;
+			int slot = slot(key, mask);
+			while (keys[slot] != key) {
+				if (keys[slot] == FREE) {
+					return -1;
+				}
+				slot = (slot + 1) & mask;
+			}
+			int value = values[slot];
+
+			// Shift later entries of the probe run back, so lookups do not stop at the gap
+			int gap = slot;
+			for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+				int home = slot(keys[next], mask);
+				if (((next - home) & mask) >= ((next - gap) & mask)) {
+					keys[gap] = keys[next];
+					values[gap] = values[next];
+					gap = next;
+				}
+			}
+			keys[gap] = FREE;
+			size--;
+			return value;
+		}
+
+		private void resize() {
+			int[] oldKeys = keys;
+			int[] oldValues = values;
+			keys = new int[oldKeys.length * 2];
+			values = new int[oldKeys.length * 2];
+			Arrays.fill(keys, FREE);
+			size = 0;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != FREE) {
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+
+		private static int slot(int key, int mask) {
+			int h = key * 0x9E3779B9;
+			return (h ^ (h >>> 16)) & mask;
+		}
+	}
+}
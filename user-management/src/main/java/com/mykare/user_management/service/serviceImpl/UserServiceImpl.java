@@ -1,21 +1,43 @@
 package com.mykare.user_management.service.serviceImpl;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mykare.user_management.Response;
 import com.mykare.user_management.model.User;
 import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.JwtResponse;
+import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.RefreshTokenStore;
+import com.mykare.user_management.security.jwt.TokenRevocationList;
+import com.mykare.user_management.security.jwt.VerifiedJwt;
 import com.mykare.user_management.service.UserService;
+import com.mykare.user_management.webModel.UserPage;
+import com.mykare.user_management.webModel.UserSearchPage;
+import com.mykare.user_management.webModel.UserSummary;
 import com.mykare.user_management.webModel.UserWebModel;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class UserServiceImpl implements UserService{
 	
@@ -23,44 +45,71 @@ public class UserServiceImpl implements UserService{
 	UserRepository userRepository;
 	
     @Autowired
-    private LocationService locationService;
+    private CountryEnrichmentService countryEnrichmentService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${annular.app.users.defaultPageSize:50}")
+    private int defaultPageSize;
+
+    @Value("${annular.app.users.maxPageSize:500}")
+    private int maxPageSize;
+
+    private Timer saveTimer;
+
+    @PostConstruct
+    public void init() {
+        saveTimer = meterRegistry.timer("user.save");
+    }
 
 	@Override
 	public ResponseEntity<?> register(UserWebModel userWebModel,String ipAddress) {
-	    // Check if email already exists
-	    Optional<User> existingUser = userRepository.findByEmailId(userWebModel.getEmailId());
-	    if (existingUser.isPresent()) {
-	        return ResponseEntity.badRequest().body(new Response(0, "fail", "Email already in use. Please use a different email."));
-	    }
-
 	    // Create new user entity
 	    User newUser = new User();
 	    newUser.setUserName(userWebModel.getUserName());
 	    newUser.setEmailId(userWebModel.getEmailId());
 	    newUser.setGender(userWebModel.getGender());
 	    newUser.setUserType(userWebModel.getUserType());
-        // Set IP address
+	    newUser.setTokenVersion(0);
+        // Set IP address; the country is looked up in the background once the user is saved
 	    newUser.setIpAddress(ipAddress);
-        
-        // Get country from IP
-	    newUser.setCountry(locationService.getCountryFromIp(ipAddress));
 
 	    // Encrypt password before saving
-	    BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 	    newUser.setPassword(passwordEncoder.encode(userWebModel.getPassword()));
 
-	    // Save user to database
-	    userRepository.save(newUser);
+	    // Save user to database; the unique index on the normalized email rejects duplicates,
+	    // including two registrations racing for the same address
+	    try {
+	        saveTimer.record(() -> userRepository.saveAndFlush(newUser));
+	    } catch (DataIntegrityViolationException e) {
+	        return ResponseEntity.badRequest().body(new Response(0, "fail", "Email already in use. Please use a different email."));
+	    }
+	    countryEnrichmentService.enqueue(newUser.getUserId(), ipAddress);
+	    userSearchIndex.add(newUser.getUserId(), newUser.getUserName(), newUser.getEmailId());
 
 	    return ResponseEntity.ok(new Response(1, "success", "User registered successfully!"));
 	}
 
 	@Override
-	public ResponseEntity<?> deleteUserDetails(Integer userId, String requestingUserEmail) {
-	    Optional<User> requestingUser = userRepository.findByEmailId(requestingUserEmail);
-	    
+	public ResponseEntity<?> deleteUserDetails(Integer userId, UserDetailsImpl requestingUser) {
 	    // Check if requesting user is an admin
-	    if (requestingUser.isEmpty() || !requestingUser.get().getUserType().equalsIgnoreCase("ADMIN")) {
+	    if (requestingUser == null || !requestingUser.isAdmin()) {
 	        return ResponseEntity.status(HttpStatus.FORBIDDEN)
 	                .body(new Response(0, "Fail", "Access denied. Only admin users can delete accounts."));
 	    }
@@ -74,15 +123,57 @@ public class UserServiceImpl implements UserService{
 
 	    // Delete user
 	    userRepository.delete(userToDelete.get());
+	    userSearchIndex.remove(userId);
+
+	    // Tokens already issued to the user are otherwise valid until they expire
+	    tokenRevocationList.revokeAll(userId);
+	    refreshTokenStore.revokeAll(userId);
 
 	    return ResponseEntity.ok(new Response(1, "Success", "User deleted successfully."));
 	}
 
-	public ResponseEntity<?> getAllUsers(String requestingUserEmail) {
-	    Optional<User> requestingUser = userRepository.findByEmailId(requestingUserEmail);
+	/**
+	 * Rotates a refresh token: the presented token is redeemed and a new access
+	 * token and refresh token are returned, without a password check.
+	 */
+	@Override
+	public ResponseEntity<?> refreshToken(String refreshToken) {
+	    Integer userId = refreshTokenStore.redeem(refreshToken);
+	    // Served from the second-level cache when the user is cached
+	    Optional<User> user = userId == null ? Optional.empty() : userRepository.findById(userId);
+	    if (user.isEmpty()) {
+	        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+	                .body(new Response(-1, "Fail", "Invalid or expired refresh token"));
+	    }
+
+	    String jwt = jwtUtils.generateJwtTokenForRefreshToken(user.get());
+	    return ResponseEntity.ok(new JwtResponse(jwt, userId, 1, refreshTokenStore.issue(userId)));
+	}
 
+	/**
+	 * Revokes the presented access token until it expires, and drops the
+	 * refresh token when one is given. Other sessions of the user stay valid.
+	 */
+	@Override
+	public ResponseEntity<?> logout(String jwt, String refreshToken) {
+	    VerifiedJwt verifiedJwt = jwt == null ? null : jwtUtils.verifyJwtToken(jwt);
+	    if (verifiedJwt == null) {
+	        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+	                .body(new Response(-1, "Fail", "Invalid or expired token"));
+	    }
+
+	    tokenRevocationList.revoke(verifiedJwt.getTokenId(), verifiedJwt.getExpiration().getTime());
+	    if (refreshToken != null) {
+	        // Redeeming without issuing a successor is how a refresh token is dropped
+	        refreshTokenStore.redeem(refreshToken);
+	    }
+
+	    return ResponseEntity.ok(new Response(1, "Success", "Logged out successfully."));
+	}
+
+	public ResponseEntity<?> getAllUsers(UserDetailsImpl requestingUser) {
 	    // Check if the requesting user is an admin
-	    if (requestingUser.isEmpty() || !requestingUser.get().getUserType().equalsIgnoreCase("ADMIN")) {
+	    if (requestingUser == null || !requestingUser.isAdmin()) {
 	        return ResponseEntity.status(HttpStatus.FORBIDDEN)
 	                .body(new Response(0, "Fail", "Access denied. Only admin users can fetch all users."));
 	    }
@@ -93,4 +184,79 @@ public class UserServiceImpl implements UserService{
 	    return ResponseEntity.ok(new Response(1, "Success", users));
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public ResponseEntity<?> getUsersPage(UserDetailsImpl requestingUser, Integer cursor, Integer limit, String userType,
+			String country, Date createdFrom, Date createdTo) {
+	    // Check if the requesting user is an admin
+	    if (requestingUser == null || !requestingUser.isAdmin()) {
+	        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+	                .body(new Response(0, "Fail", "Access denied. Only admin users can fetch all users."));
+	    }
+
+	    int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+	    // Fetch one extra row to know whether another page follows without a count query
+	    List<UserSummary> rows = userRepository.findPageAfter(cursor == null ? 0 : cursor, userType, country,
+	            createdFrom, createdTo, PageRequest.of(0, pageSize + 1));
+
+	    Integer nextCursor = null;
+	    if (rows.size() > pageSize) {
+	        rows = rows.subList(0, pageSize);
+	        nextCursor = rows.get(pageSize - 1).getUserId();
+	    }
+
+	    return ResponseEntity.ok(new Response(1, "Success", new UserPage(rows, nextCursor)));
+	}
+
+	/**
+	 * Ranked search over user names and emails by prefix or substring. Matching
+	 * and ranking happen in {@link UserSearchIndex}; only the rows of the
+	 * requested page are read from the database.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public ResponseEntity<?> searchUsers(UserDetailsImpl requestingUser, String query, Integer offset, Integer limit) {
+	    // Check if the requesting user is an admin
+	    if (requestingUser == null || !requestingUser.isAdmin()) {
+	        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+	                .body(new Response(0, "Fail", "Access denied. Only admin users can search users."));
+	    }
+	    if (query == null || query.trim().isEmpty()) {
+	        return ResponseEntity.badRequest().body(new Response(0, "fail", "Search query is required."));
+	    }
+
+	    int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+	    int start = offset == null || offset < 0 ? 0 : offset;
+
+	    UserSearchIndex.Hits hits = userSearchIndex.search(query, start, pageSize);
+	    if (hits == null) {
+	        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+	                .body(new Response(0, "Fail", "User search is not available yet. Please retry shortly."));
+	    }
+
+	    List<Integer> userIds = new ArrayList<>(hits.getUserIds().length);
+	    for (int userId : hits.getUserIds()) {
+	        userIds.add(userId);
+	    }
+	    Map<Integer, UserSummary> summaries = new HashMap<>();
+	    if (!userIds.isEmpty()) {
+	        for (UserSummary summary : userRepository.findSummariesByUserIdIn(userIds)) {
+	            summaries.put(summary.getUserId(), summary);
+	        }
+	    }
+
+	    // Keep the index's rank order; a user deleted since the search is left out
+	    List<UserSummary> items = new ArrayList<>(userIds.size());
+	    for (Integer userId : userIds) {
+	        UserSummary summary = summaries.get(userId);
+	        if (summary != null) {
+	            items.add(summary);
+	        }
+	    }
+
+	    Integer nextOffset = (long) start + pageSize < hits.getTotal() ? start + pageSize : null;
+	    return ResponseEntity.ok(new Response(1, "Success", new UserSearchPage(items, hits.getTotal(), nextOffset)));
+	}
+
 }
@@ -0,0 +1,17 @@
+package com.mykare.user_management.util;
+
+import java.util.Locale;
+
+public final class EmailAddresses {
+
+    private EmailAddresses() {
+    }
+
+    /**
+     * Canonical form used for uniqueness and lookups: surrounding whitespace
+     * removed and lower-cased. Returns {@code null} for {@code null}.
+     */
+    public static String normalize(String emailId) {
+        return emailId == null ? null : emailId.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,188 @@
+package com.mykare.user_management.util;
+
+/**
+ * Allocation-free parsing of IPv4 and IPv6 literals into primitive values.
+ * Unlike {@link java.net.InetAddress#getByName(String)} these never fall back to
+ * a DNS lookup.
+ */
+public final class IpAddresses {
+
+    private IpAddresses() {
+    }
+
+    /**
+     * Returns the IPv4 address as an unsigned 32-bit value, or -1 when the text is
+     * not a dotted-quad literal.
+     */
+    public static long parseIpv4(CharSequence text) {
+        return parseIpv4(text, 0, text.length());
+    }
+
+    public static long parseIpv4(CharSequence text, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int value = 0;
+            int digits = 0;
+            while (i < to && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                value = value * 10 + (text.charAt(i) - '0');
+                digits++;
+                i++;
+                if (digits > 3 || value > 255) {
+                    return -1;
+                }
+            }
+            if (digits == 0) {
+                return -1;
+            }
+            address = (address << 8) | value;
+            octets++;
+            if (i == to) {
+                break;
+            }
+            if (text.charAt(i) != '.' || octets == 4) {
+                return -1;
+            }
+            i++;
+            if (i == to) {
+                return -1;
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    /**
+     * Parses an IPv6 literal, including {@code ::} compression, an embedded IPv4
+     * tail and a {@code %zone} suffix. The high and low 64 bits are written to
+     * {@code out[0]} and {@code out[1]}.
+     *
+     * @return {@code false} when the text is not a valid IPv6 literal
+     */
+    public static boolean parseIpv6(CharSequence text, long[] out) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == '%') {
+                length = i;
+                break;
+            }
+        }
+        if (length < 2) {
+            return false;
+        }
+
+        long headHi = 0;
+        long headLo = 0;
+        int headGroups = 0;
+        long tailHi = 0;
+        long tailLo = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = 0;
+        if (text.charAt(0) == ':') {
+            if (text.charAt(1) != ':') {
+                return false;
+            }
+            compressed = true;
+            i = 2;
+        }
+
+        while (i < length) {
+            int groupStart = i;
+            int value = 0;
+            int digits = 0;
+            int nibble;
+            while (i < length && (nibble = hexValue(text.charAt(i))) >= 0) {
+                value = (value << 4) | nibble;
+                digits++;
+                i++;
+            }
+
+            if (i < length && text.charAt(i) == '.') {
+                // Embedded IPv4 address, always the last two groups
+                long ipv4 = parseIpv4(text, groupStart, length);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                for (int shift = 16; shift >= 0; shift -= 16) {
+                    int group = (int) ((ipv4 >>> shift) & 0xFFFF);
+                    if (compressed) {
+                        tailHi = (tailHi << 16) | (tailLo >>> 48);
+                        tailLo = (tailLo << 16) | group;
+                        tailGroups++;
+                    } else {
+                        headHi = (headHi << 16) | (headLo >>> 48);
+                        headLo = (headLo << 16) | group;
+                        headGroups++;
+                    }
+                }
+                break;
+            }
+
+            if (digits == 0 || digits > 4) {
+                return false;
+            }
+            if (compressed) {
+                tailHi = (tailHi << 16) | (tailLo >>> 48);
+                tailLo = (tailLo << 16) | value;
+                tailGroups++;
+            } else {
+                headHi = (headHi << 16) | (headLo >>> 48);
+                headLo = (headLo << 16) | value;
+                headGroups++;
+            }
+
+            if (i == length) {
+                break;
+            }
+            if (text.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < length && text.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i++;
+            } else if (i == length) {
+                return false;
+            }
+        }
+
+        int groups = headGroups + tailGroups;
+        if (compressed ? groups > 7 : groups != 8) {
+            return false;
+        }
+
+        // Move the groups before "::" to the top of the address
+        int shift = 16 * (8 - headGroups);
+        if (shift >= 128) {
+            headHi = 0;
+            headLo = 0;
+        } else if (shift >= 64) {
+            headHi = headLo << (shift - 64);
+            headLo = 0;
+        } else if (shift > 0) {
+            headHi = (headHi << shift) | (headLo >>> (64 - shift));
+            headLo = headLo << shift;
+        }
+        out[0] = headHi | tailHi;
+        out[1] = headLo | tailLo;
+        return true;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
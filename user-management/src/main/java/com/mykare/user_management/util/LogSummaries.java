@@ -0,0 +1,73 @@
+package com.mykare.user_management.util;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.mykare.user_management.Response;
+
+/**
+ * Size-bounded, structural rendering of response bodies for log lines.
+ *
+ * {@link #summarize(Object)} returns a wrapper whose {@code toString()} runs only
+ * if the event is actually logged. Collections and maps are rendered as their
+ * size, never their elements, so logging a user listing does not
+ * {@code toString()} every entity. Text is cut at {@link #MAX_TEXT_LENGTH}
+ * characters.
+ */
+public final class LogSummaries {
+
+    public static final int MAX_TEXT_LENGTH = 200;
+
+    private LogSummaries() {
+    }
+
+    public static Object summarize(Object body) {
+        return new Object() {
+            @Override
+            public String toString() {
+                StringBuilder out = new StringBuilder(64);
+                append(out, body);
+                return out.toString();
+            }
+        };
+    }
+
+    static void append(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Response) {
+            Response response = (Response) value;
+            out.append("{status=").append(response.getStatus()).append(", message=");
+            appendText(out, response.getMessage());
+            out.append(", data=");
+            append(out, response.getData());
+            out.append('}');
+        } else if (value instanceof CharSequence) {
+            appendText(out, (CharSequence) value);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+            out.append(value);
+        } else if (value instanceof Collection) {
+            out.append(value.getClass().getSimpleName()).append("(size=").append(((Collection<?>) value).size())
+                    .append(')');
+        } else if (value instanceof Map) {
+            out.append(value.getClass().getSimpleName()).append("(size=").append(((Map<?, ?>) value).size())
+                    .append(')');
+        } else if (value.getClass().isArray()) {
+            out.append(value.getClass().getComponentType().getSimpleName()).append("[](length=")
+                    .append(java.lang.reflect.Array.getLength(value)).append(')');
+        } else {
+            // Entities and web models may render every field, or load lazy state
+            out.append(value.getClass().getSimpleName());
+        }
+    }
+
+    private static void appendText(StringBuilder out, CharSequence text) {
+        if (text == null) {
+            out.append("null");
+        } else if (text.length() <= MAX_TEXT_LENGTH) {
+            out.append(text);
+        } else {
+            out.append(text, 0, MAX_TEXT_LENGTH).append("...(").append(text.length()).append(" chars)");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.mykare.user_management.webModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportReport {
+	private long total;
+	private long imported;
+	private long skipped;
+	private long failed;
+	private List<ImportRowResult> rows = new ArrayList<>();
+
+	public void add(ImportRowResult result) {
+		rows.add(result);
+		total++;
+		switch (result.getStatus()) {
+		case IMPORTED:
+			imported++;
+			break;
+		case FAILED:
+			failed++;
+			break;
+		default:
+			skipped++;
+		}
+	}
+}
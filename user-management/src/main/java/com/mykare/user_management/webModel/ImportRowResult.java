@@ -0,0 +1,26 @@
+package com.mykare.user_management.webModel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowResult {
+
+	public enum Status {
+		IMPORTED, DUPLICATE_IN_FILE, ALREADY_EXISTS, INVALID, FAILED
+	}
+
+	/** 1-based position of the record in the uploaded body, not counting a CSV header. */
+	private long row;
+	private String emailId;
+	private Status status;
+	private Integer userId;
+	private String message;
+}
@@ -0,0 +1,16 @@
+package com.mykare.user_management.webModel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenRequest {
+
+	private String refreshToken;
+
+}
@@ -0,0 +1,21 @@
+package com.mykare.user_management.webModel;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} is passed back as
+ * {@code cursor} to fetch the following page and is {@code null} on the last one.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPage {
+	private List<UserSummary> items;
+	private Integer nextCursor;
+}
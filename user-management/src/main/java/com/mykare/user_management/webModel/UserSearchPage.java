@@ -0,0 +1,23 @@
+package com.mykare.user_management.webModel;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One page of ranked search results. {@code total} counts the matches across all
+ * pages; {@code nextOffset} is passed back as {@code offset} to fetch the
+ * following page and is {@code null} on the last one.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSearchPage {
+	private List<UserSummary> items;
+	private int total;
+	private Integer nextOffset;
+}
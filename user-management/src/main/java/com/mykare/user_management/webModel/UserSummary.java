@@ -0,0 +1,28 @@
+package com.mykare.user_management.webModel;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of {@link com.mykare.user_management.model.User} for
+ * listings. Spring Data selects only these columns and never builds a managed
+ * entity, so password hashes and persistence-context state stay out of the heap.
+ */
+public interface UserSummary {
+
+	Integer getUserId();
+
+	String getEmailId();
+
+	String getUserName();
+
+	String getGender();
+
+	String getUserType();
+
+	String getCountry();
+
+	Boolean getUserIsActive();
+
+	Date getUserCreatedOn();
+
+}
@@ -0,0 +1,165 @@
+package com.mykare.user_management.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.AuthTokenFilter;
+import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.TokenRevocationList;
+import com.mykare.user_management.security.jwt.VerifiedTokenCache;
+import com.mykare.user_management.service.serviceImpl.UserDetailsServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One authenticated request through {@link AuthTokenFilter} with a no-op chain.
+ * With {@code statelessAuth=false} the principal is loaded per request from an
+ * in-memory H2 table over plain JDBC, so the database leg costs about what the
+ * indexed natural-id lookup costs without Hibernate around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean statelessAuth;
+
+    @Param({ "true", "false" })
+    private boolean tokenCache;
+
+    private AuthTokenFilter authTokenFilter;
+
+    private Connection connection;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:auth-filter;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id integer primary key, emailIdNormalized varchar(255) unique, "
+                    + "userName varchar(255), userType varchar(255), tokenVersion integer, password varchar(255))");
+            statement.execute("insert into users select x, 'user' || x || '@example.com', 'User ' || x, 'USER', 0, "
+                    + "'$2a$10$abcdefghijklmnopqrstuuO3bB6m2vI4Kc3c6t3fCk8oQm2b7f9yWq' from system_range(1, 10000)");
+        }
+
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "annularSecretKeyforjwtToken");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtils.init();
+
+        TokenRevocationList tokenRevocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(tokenRevocationList, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxEntries", 10000);
+        ReflectionTestUtils.setField(tokenRevocationList, "bloomBits", 1 << 20);
+        ReflectionTestUtils.setField(tokenRevocationList, "meterRegistry", new SimpleMeterRegistry());
+        tokenRevocationList.init();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 10000L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        verifiedTokenCache.init();
+
+        authTokenFilter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(authTokenFilter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(authTokenFilter, "tokenRevocationList", tokenRevocationList);
+        ReflectionTestUtils.setField(authTokenFilter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(authTokenFilter, "userDetailsService", new JdbcUserDetailsService(connection));
+        ReflectionTestUtils.setField(authTokenFilter, "statelessAuth", statelessAuth);
+        ReflectionTestUtils.setField(authTokenFilter, "tokenCacheEnabled", tokenCache);
+
+        token = jwtUtils.generateJwtToken(
+                new UserDetailsImpl(4242, "User 4242", "user4242@example.com", "USER", 0, null, Set.of()));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public Object filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    /**
+     * Stands in for the JPA-backed service: same lookup key and result type,
+     * answered by a prepared statement on the H2 table.
+     */
+    private static final class JdbcUserDetailsService extends UserDetailsServiceImpl {
+
+        private final PreparedStatement byEmail;
+
+        JdbcUserDetailsService(Connection connection) throws SQLException {
+            byEmail = connection.prepareStatement(
+                    "select id, userName, userType, tokenVersion, password from users where emailIdNormalized = ?");
+        }
+
+        @Override
+        public UserDetails loadUserByUsername(String email) {
+            try {
+                byEmail.setString(1, email.substring(0, email.indexOf('^')));
+                try (ResultSet resultSet = byEmail.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new UsernameNotFoundException("User Not Found with email: " + email);
+                    }
+                    return new UserDetailsImpl(resultSet.getInt(1), resultSet.getString(2),
+                            email.substring(0, email.indexOf('^')), resultSet.getString(3), resultSet.getInt(4),
+                            resultSet.getString(5), Set.of());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuthTokenFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
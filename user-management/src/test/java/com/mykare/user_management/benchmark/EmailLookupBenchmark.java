@@ -0,0 +1,107 @@
+package com.mykare.user_management.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mykare.user_management.util.EmailAddresses;
+
+/**
+ * Latency of a user lookup by email at 1M rows in H2: the old query on the
+ * unindexed {@code emailId} column against the same lookup through the unique
+ * index on {@code emailIdNormalized}. Plain JDBC keeps Hibernate out of the
+ * measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmailLookupBenchmark {
+
+    @Param("1000000")
+    private int rows;
+
+    private Connection connection;
+
+    private PreparedStatement byEmailId;
+
+    private PreparedStatement byNormalizedEmailId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:email-lookup;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id integer primary key, emailId varchar(255), "
+                    + "emailIdNormalized varchar(255), userName varchar(255), userType varchar(255), "
+                    + "password varchar(255))");
+            statement.execute("insert into users select x, 'User' || x || '@Example.com', "
+                    + "'user' || x || '@example.com', 'User ' || x, 'USER', "
+                    + "'$2a$10$abcdefghijklmnopqrstuuO3bB6m2vI4Kc3c6t3fCk8oQm2b7f9yWq' "
+                    + "from system_range(1, " + rows + ")");
+            statement.execute("create unique index ux_users_email_id_normalized on users (emailIdNormalized)");
+        }
+        byEmailId = connection.prepareStatement("select * from users where emailId = ?");
+        byNormalizedEmailId = connection.prepareStatement("select * from users where emailIdNormalized = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int scanByEmailId() throws SQLException {
+        byEmailId.setString(1, "User" + randomId() + "@Example.com");
+        return countRows(byEmailId);
+    }
+
+    @Benchmark
+    public int indexedByNormalizedEmailId() throws SQLException {
+        byNormalizedEmailId.setString(1, EmailAddresses.normalize(" User" + randomId() + "@Example.com"));
+        return countRows(byNormalizedEmailId);
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    private static int countRows(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.mykare.user_management.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.service.serviceImpl.IpApiGeoLocationProvider;
+import com.mykare.user_management.service.serviceImpl.IpRangeTable;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Offline range-table lookup against the HTTP provider. The HTTP side talks to a
+ * local stub server, so it measures only client and loopback overhead and is a
+ * lower bound for the real ip-api.com round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoLookupBenchmark {
+
+    private static final int RANGES = 200_000;
+
+    private IpRangeTable ipRangeTable;
+
+    private IpApiGeoLocationProvider httpProvider;
+
+    private HttpServer stubServer;
+
+    private String[] addresses;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder csv = new StringBuilder(RANGES * 24);
+        for (int i = 0; i < RANGES; i++) {
+            csv.append((i >>> 16) + 1).append('.').append((i >>> 8) & 0xFF).append('.').append(i & 0xFF)
+                    .append(".0/24,Country").append(i % 250).append('\n');
+        }
+        ipRangeTable = IpRangeTable.load(new StringReader(csv.toString()));
+
+        addresses = new String[1024];
+        for (int i = 0; i < addresses.length; i++) {
+            int range = ThreadLocalRandom.current().nextInt(RANGES);
+            addresses[i] = ((range >>> 16) + 1) + "." + ((range >>> 8) & 0xFF) + "." + (range & 0xFF) + ".7";
+        }
+
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] body = "{\"status\":\"success\",\"country\":\"India\"}".getBytes(StandardCharsets.UTF_8);
+        stubServer.createContext("/json/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stubServer.start();
+
+        httpProvider = new IpApiGeoLocationProvider(new RestTemplateBuilder(), 2000, 3000);
+        ReflectionTestUtils.setField(httpProvider, "ipApiUrl",
+                "http://127.0.0.1:" + stubServer.getAddress().getPort() + "/json/");
+    }
+
+    @TearDown
+    public void tearDown() {
+        stubServer.stop(0);
+    }
+
+    @Benchmark
+    public String offlineLookup() {
+        return ipRangeTable.lookup(addresses[ThreadLocalRandom.current().nextInt(addresses.length)]);
+    }
+
+    @Benchmark
+    public String httpLookup() {
+        return httpProvider.getCountryFromIp(addresses[ThreadLocalRandom.current().nextInt(addresses.length)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GeoLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
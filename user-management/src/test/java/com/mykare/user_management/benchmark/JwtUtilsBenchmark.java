@@ -0,0 +1,95 @@
+package com.mykare.user_management.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.VerifiedJwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-request JWT cost of {@code AuthTokenFilter}: the old path verified the
+ * token three times with a freshly built key, the new one verifies it once with
+ * the key and parser built at startup. {@code generate} is the signing cost paid
+ * once per login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+
+    private UserDetailsImpl principal;
+
+    private String token;
+
+    private byte[] legacyKeyBytes;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "annularSecretKeyforjwtToken");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtils.init();
+
+        principal = new UserDetailsImpl(1, "Admin User", "admin@example.com", "ADMIN", 0, null, Set.of());
+        token = jwtUtils.generateJwtToken(principal);
+        legacyKeyBytes = (byte[]) ReflectionTestUtils.invokeMethod(JwtUtils.class, "deriveKeyBytes",
+                "annularSecretKeyforjwtToken");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(principal);
+    }
+
+    @Benchmark
+    public Object legacyValidateThenReadTwoClaims() {
+        legacyParse(token);
+        Object userEmailId = legacyParse(token).get(JwtUtils.CLAIM_USER_EMAIL_ID);
+        Object userType = legacyParse(token).get(JwtUtils.CLAIM_USER_TYPE);
+        return userEmailId.toString() + userType;
+    }
+
+    @Benchmark
+    public Object singleVerify() {
+        VerifiedJwt verifiedJwt = jwtUtils.verifyJwtToken(token);
+        return verifiedJwt.getUserEmailId() + verifiedJwt.getUserType();
+    }
+
+    private Claims legacyParse(String jwt) {
+        SecretKey key = new SecretKeySpec(legacyKeyBytes, "HmacSHA512");
+        return Jwts.parser().setSigningKey(key).parseClaimsJws(jwt).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.mykare.user_management.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mykare.user_management.Response;
+import com.mykare.user_management.logging.HotPathRateLimitFilter;
+import com.mykare.user_management.logging.LogMarkers;
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.util.LogSummaries;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Per-request logging cost from several request threads. {@code sync} writes
+ * straight to a file appender flushed per event, as the console appender does;
+ * {@code async} goes through the AsyncAppender set up in logback-spring.xml;
+ * {@code hotPath} adds the HOT_PATH rate limit. The body benchmarks compare
+ * rendering a user listing with {@code toString()} against {@link LogSummaries}.
+ * Under sustained load the async buffer fills and sheds INFO events, as it is
+ * configured to, so {@code async} measures the cost to the request thread, not
+ * the throughput of the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%15.15thread] %-40.40logger{39} : %msg%n";
+
+    private File logFile;
+
+    private LoggerContext syncContext;
+
+    private LoggerContext asyncContext;
+
+    private LoggerContext hotPathContext;
+
+    private Logger syncLogger;
+
+    private Logger asyncLogger;
+
+    private Logger hotPathLogger;
+
+    private Response usersResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = File.createTempFile("logging-benchmark", ".log");
+
+        syncContext = new LoggerContext();
+        syncLogger = syncContext.getLogger("bench");
+        syncLogger.addAppender(fileAppender(syncContext));
+
+        asyncContext = new LoggerContext();
+        asyncLogger = asyncContext.getLogger("bench");
+        asyncLogger.addAppender(asyncAppender(asyncContext));
+
+        hotPathContext = new LoggerContext();
+        HotPathRateLimitFilter filter = new HotPathRateLimitFilter();
+        filter.setEventsPerSecond(20);
+        filter.start();
+        hotPathContext.addTurboFilter(filter);
+        hotPathLogger = hotPathContext.getLogger("bench");
+        hotPathLogger.addAppender(asyncAppender(hotPathContext));
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            User user = new User();
+            user.setUserId(i);
+            user.setUserName("user" + i);
+            user.setEmailId("user" + i + "@example.com");
+            user.setCountry("India");
+            users.add(user);
+        }
+        usersResponse = new Response(1, "Success", users);
+    }
+
+    @TearDown
+    public void tearDown() {
+        syncContext.stop();
+        asyncContext.stop();
+        hotPathContext.stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void sync() {
+        syncLogger.info(LogMarkers.HOT_PATH, "Request {} {} from origin {}", "GET", "/user/users", "https://app");
+    }
+
+    @Benchmark
+    public void async() {
+        asyncLogger.info(LogMarkers.HOT_PATH, "Request {} {} from origin {}", "GET", "/user/users", "https://app");
+    }
+
+    @Benchmark
+    public void hotPath() {
+        hotPathLogger.info(LogMarkers.HOT_PATH, "Request {} {} from origin {}", "GET", "/user/users", "https://app");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String bodyToString() {
+        return "Get all users response: " + usersResponse.getData();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String bodySummary() {
+        return "Get all users response: " + LogSummaries.summarize(usersResponse);
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(logFile.getAbsolutePath());
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.start();
+        return appender;
+    }
+
+    private AsyncAppender asyncAppender(LoggerContext context) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(8192);
+        appender.setNeverBlock(true);
+        appender.setIncludeCallerData(false);
+        appender.addAppender(fileAppender(context));
+        appender.start();
+        return appender;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoggingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
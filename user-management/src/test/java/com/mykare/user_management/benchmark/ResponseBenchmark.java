@@ -0,0 +1,94 @@
+package com.mykare.user_management.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.user_management.Response;
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.JwtResponse;
+
+/**
+ * Per-request object work around the controller: building the principal from
+ * a loaded {@link User}, and writing the {@link Response} and
+ * {@link JwtResponse} bodies with the same Jackson setup Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBenchmark {
+
+    @Param({ "1", "100" })
+    private int users;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private User user;
+
+    private Response usersResponse;
+
+    private JwtResponse jwtResponse;
+
+    @Setup
+    public void setUp() {
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User row = new User();
+            row.setUserId(i);
+            row.setUserName("User " + i);
+            row.setEmailId("user" + i + "@example.com");
+            row.setGender("Female");
+            row.setUserType("USER");
+            row.setCountry("India");
+            row.setUserIsActive(true);
+            row.setUserCreatedOn(new Date());
+            row.setTokenVersion(0);
+            row.setPassword("$2a$10$abcdefghijklmnopqrstuuO3bB6m2vI4Kc3c6t3fCk8oQm2b7f9yWq");
+            list.add(row);
+        }
+        user = list.get(0);
+        usersResponse = new Response(1, "Success", list);
+        jwtResponse = new JwtResponse("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJ1c2VyQGV4YW1wbGUuY29tIn0.signature", 1, 1, null);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildUserDetails() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public byte[] writeUsersResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(usersResponse);
+    }
+
+    @Benchmark
+    public byte[] writeJwtResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jwtResponse);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResponseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
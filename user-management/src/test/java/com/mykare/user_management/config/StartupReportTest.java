@@ -0,0 +1,58 @@
+package com.mykare.user_management.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StartupReportTest {
+
+    private StartupReport startupReport;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        startupReport = new StartupReport();
+        ReflectionTestUtils.setField(startupReport, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(startupReport, "reportTopSteps", 2);
+    }
+
+    @Test
+    void testReport_RecordsEveryStepAndListsSlowest() {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(16);
+        for (String beanName : new String[] { "userController", "passwordHashingService", "locationService" }) {
+            StartupStep step = applicationStartup.start("spring.beans.instantiate");
+            step.tag("beanName", beanName);
+            step.end();
+        }
+        applicationStartup.start("spring.context.refresh").end();
+
+        String report = startupReport.report(applicationStartup.getBufferedTimeline());
+
+        Timer beans = meterRegistry.find("application.startup.step").tag("step", "spring.beans.instantiate").timer();
+        assertNotNull(beans);
+        assertEquals(3, beans.count());
+        assertEquals(1, meterRegistry.find("application.startup.step").tag("step", "spring.context.refresh").timer().count());
+        assertEquals(2, report.split("\n").length);
+    }
+
+    @Test
+    void testReport_DescribesStepTags() {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(16);
+        StartupStep step = applicationStartup.start("spring.beans.instantiate");
+        step.tag("beanName", "userController");
+        step.end();
+
+        String report = startupReport.report(applicationStartup.getBufferedTimeline());
+
+        assertTrue(report.endsWith("spring.beans.instantiate beanName=userController"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.mykare.user_management.config;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class UserIdSequenceInitializerTest {
+
+    private static final String NEXT_VALUE_SQL = "select next value";
+
+    @InjectMocks
+    private UserIdSequenceInitializer userIdSequenceInitializer;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userIdSequenceInitializer, "nextValueSql", NEXT_VALUE_SQL);
+    }
+
+    @Test
+    void testRun_LeavesSequenceAloneWhenAlreadyAhead() {
+        when(jdbcTemplate.queryForObject("select max(id) from users", Integer.class)).thenReturn(120);
+        when(jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class)).thenReturn(201L);
+
+        userIdSequenceInitializer.run(null);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testRun_RestartsSequenceWhenBehind() {
+        when(jdbcTemplate.queryForObject("select max(id) from users", Integer.class)).thenReturn(120);
+        when(jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class)).thenReturn(51L);
+
+        userIdSequenceInitializer.run(null);
+
+        verify(jdbcTemplate).execute(eq("alter sequence users_seq restart with 171"));
+    }
+
+    @Test
+    void testRun_SkipsEmptyTable() {
+        when(jdbcTemplate.queryForObject("select max(id) from users", Integer.class)).thenReturn(null);
+
+        userIdSequenceInitializer.run(null);
+
+        verify(jdbcTemplate, never()).queryForObject(NEXT_VALUE_SQL, Long.class);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,223 @@
+package com.mykare.user_management.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load generator: requests are started on a fixed schedule at the
+ * target rate whether or not earlier ones have completed, like independent
+ * clients would. Latency is measured from the time a request was scheduled
+ * to start, not from when it was actually sent, so a stalled server shows up
+ * in the percentiles instead of silently lowering the offered load.
+ *
+ * Each operation is picked at random by weight and returns a future that
+ * completes with {@code true} on success. When more than {@code maxInFlight}
+ * requests are outstanding, new ones are counted as dropped rather than queued.
+ */
+public class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private final int maxInFlight;
+
+    private int totalWeight;
+
+    public OpenModelLoadGenerator(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public OpenModelLoadGenerator add(String name, int weight, Supplier<CompletableFuture<Boolean>> request) {
+        if (weight > 0) {
+            operations.add(new Operation(name, weight, request));
+            totalWeight += weight;
+        }
+        return this;
+    }
+
+    /**
+     * Offers load at {@code ratePerSecond} for the given duration, then waits
+     * for the outstanding requests.
+     */
+    public Report run(double ratePerSecond, long duration, TimeUnit unit) throws InterruptedException {
+        Report report = new Report(operations, ratePerSecond);
+        AtomicInteger inFlight = new AtomicInteger();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + unit.toNanos(duration);
+
+        for (long i = 0;; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = pick();
+            Stats stats = report.stats.get(operation.name);
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                stats.dropped.increment();
+                continue;
+            }
+            CompletableFuture<Boolean> future;
+            try {
+                future = operation.request.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.completedFuture(false);
+            }
+            future.whenComplete((success, failure) -> {
+                long latency = System.nanoTime() - intended;
+                inFlight.decrementAndGet();
+                stats.latency.recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                if (failure == null && Boolean.TRUE.equals(success)) {
+                    stats.succeeded.increment();
+                } else {
+                    stats.failed.increment();
+                }
+            });
+        }
+
+        while (inFlight.get() > 0) {
+            Thread.sleep(10);
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static final class Operation {
+
+        private final String name;
+
+        private final int weight;
+
+        private final Supplier<CompletableFuture<Boolean>> request;
+
+        Operation(String name, int weight, Supplier<CompletableFuture<Boolean>> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    public static final class Stats {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+
+        private final LongAdder succeeded = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final LongAdder dropped = new LongAdder();
+
+        public long count() {
+            return succeeded.sum() + failed.sum() + dropped.sum();
+        }
+
+        public long errors() {
+            return failed.sum() + dropped.sum();
+        }
+
+        public double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        public Histogram histogram() {
+            return latency;
+        }
+    }
+
+    public static final class Report {
+
+        private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+        private final Stats total = new Stats();
+
+        private final double targetRate;
+
+        private long elapsedNanos;
+
+        Report(List<Operation> operations, double targetRate) {
+            for (Operation operation : operations) {
+                stats.put(operation.name, new Stats());
+            }
+            this.targetRate = targetRate;
+        }
+
+        public Map<String, Stats> byOperation() {
+            return stats;
+        }
+
+        public Stats total() {
+            if (total.count() == 0) {
+                for (Stats operation : stats.values()) {
+                    total.latency.add(operation.latency);
+                    total.succeeded.add(operation.succeeded.sum());
+                    total.failed.add(operation.failed.sum());
+                    total.dropped.add(operation.dropped.sum());
+                }
+            }
+            return total;
+        }
+
+        public double throughput() {
+            return total().count() / (elapsedNanos / 1e9);
+        }
+
+        public double targetRate() {
+            return targetRate;
+        }
+
+        public double errorRate() {
+            Stats all = total();
+            return all.count() == 0 ? 0 : (double) all.errors() / all.count();
+        }
+
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "%-10s %8s %7s %9s %9s %9s %9s %9s%n", "operation", "count", "errors",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+                appendRow(out, entry.getKey(), entry.getValue());
+            }
+            appendRow(out, "all", total());
+            out.append(String.format(Locale.ROOT, "throughput %.1f req/s (target %.1f), error rate %.2f%%%n",
+                    throughput(), targetRate, errorRate() * 100));
+            return out.toString();
+        }
+
+        private static void appendRow(StringBuilder out, String name, Stats row) {
+            out.append(String.format(Locale.ROOT, "%-10s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, row.count(),
+                    row.errors(), row.percentileMillis(50), row.percentileMillis(90), row.percentileMillis(99),
+                    row.percentileMillis(99.9), row.latency.getMaxValue() / 1_000_000.0));
+        }
+    }
+}
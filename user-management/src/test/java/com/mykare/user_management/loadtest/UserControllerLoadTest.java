@@ -0,0 +1,212 @@
+package com.mykare.user_management.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives a register/login/list/delete mix against the running app on an
+ * in-memory H2 database (the {@code loadtest} profile, which also switches to
+ * the stub geo provider). Excluded from {@code mvn test}; run with
+ *
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.rate=200 -Dloadtest.durationSeconds=60 -Dloadtest.mix=register:10,login:20,get:65,delete:5
+ * </pre>
+ *
+ * The test fails when the overall p99, the error rate or the achieved
+ * throughput crosses {@code loadtest.maxP99Millis}, {@code loadtest.maxErrorRate}
+ * or {@code loadtest.minThroughputRatio} of the target rate.
+ */
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserControllerLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserControllerLoadTest.class);
+
+    private static final String PASSWORD = "LoadTest#2024";
+
+    private final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "50"));
+
+    private final long durationSeconds = Long.getLong("loadtest.durationSeconds", 30);
+
+    private final long warmupSeconds = Long.getLong("loadtest.warmupSeconds", 10);
+
+    private final String mix = System.getProperty("loadtest.mix", "register:10,login:20,get:65,delete:5");
+
+    private final double maxP99Millis = Double.parseDouble(System.getProperty("loadtest.maxP99Millis", "1000"));
+
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+
+    private final double minThroughputRatio = Double.parseDouble(System.getProperty("loadtest.minThroughputRatio", "0.95"));
+
+    private final int loginUsers = Integer.getInteger("loadtest.loginUsers", 100);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private final ConcurrentLinkedQueue<Integer> deletableUserIds = new ConcurrentLinkedQueue<>();
+
+    private final List<String> loginEmails = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    private ExecutorService executor;
+
+    private HttpClient client;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+
+        String adminEmail = "loadtest-admin@example.com";
+        assertEquals(200, send(post("/user/register", registration(adminEmail, "ADMIN"))).statusCode());
+        adminToken = objectMapper.readTree(send(post("/user/login", login(adminEmail))).body()).get("jwt").asText();
+
+        // Users to log in as, and enough spare users that deletes never run out
+        int deletes = (int) Math.ceil(rate * (durationSeconds + warmupSeconds) * weightShare("delete") * 1.2);
+        StringBuilder csv = new StringBuilder("emailId,password,userName,gender,userType\r\n");
+        for (int i = 0; i < loginUsers; i++) {
+            loginEmails.add("login" + i + "@example.com");
+            csv.append("login").append(i).append("@example.com,").append(PASSWORD).append(",Login User,Female,USER\r\n");
+        }
+        for (int i = 0; i < deletes; i++) {
+            csv.append("delete").append(i).append("@example.com,").append(PASSWORD).append(",Delete User,Male,USER\r\n");
+        }
+        HttpResponse<String> imported = send(HttpRequest.newBuilder(uri("/user/import"))
+                .header("Authorization", "Bearer " + adminToken).header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString())).build());
+        assertEquals(200, imported.statusCode(), imported.body());
+        for (JsonNode row : objectMapper.readTree(imported.body()).path("data").path("rows")) {
+            if (row.path("emailId").asText().startsWith("delete") && row.hasNonNull("userId")) {
+                deletableUserIds.add(row.get("userId").asInt());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testUserControllerMix_StaysWithinThresholds() throws Exception {
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(10_000);
+        for (Map.Entry<String, Integer> entry : weights().entrySet()) {
+            switch (entry.getKey()) {
+                case "register":
+                    generator.add("register", entry.getValue(), () -> succeeds(post("/user/register",
+                            registration("register" + registrations.incrementAndGet() + "@example.com", "USER"))));
+                    break;
+                case "login":
+                    generator.add("login", entry.getValue(), () -> succeeds(post("/user/login",
+                            login(loginEmails.get(ThreadLocalRandom.current().nextInt(loginEmails.size()))))));
+                    break;
+                case "get":
+                    generator.add("get", entry.getValue(), () -> succeeds(HttpRequest.newBuilder(uri("/user/users?limit=20"))
+                            .header("Authorization", "Bearer " + adminToken).GET().build()));
+                    break;
+                case "delete":
+                    generator.add("delete", entry.getValue(), () -> {
+                        Integer userId = deletableUserIds.poll();
+                        if (userId == null) {
+                            return CompletableFuture.completedFuture(false);
+                        }
+                        return succeeds(HttpRequest.newBuilder(uri("/user/deleteUser/" + userId))
+                                .header("Authorization", "Bearer " + adminToken).DELETE().build());
+                    });
+                    break;
+                default:
+                    fail("Unknown operation in loadtest.mix: " + entry.getKey());
+            }
+        }
+
+        generator.run(rate, warmupSeconds, TimeUnit.SECONDS);
+        OpenModelLoadGenerator.Report report = generator.run(rate, durationSeconds, TimeUnit.SECONDS);
+        logger.info("Load test at {}/s for {} s:\n{}", rate, durationSeconds, report.format());
+
+        double p99 = report.total().percentileMillis(99);
+        assertTrue(p99 <= maxP99Millis, String.format("p99 %.1f ms exceeds %.1f ms", p99, maxP99Millis));
+        assertTrue(report.errorRate() <= maxErrorRate,
+                String.format("error rate %.4f exceeds %.4f", report.errorRate(), maxErrorRate));
+        assertTrue(report.throughput() >= rate * minThroughputRatio,
+                String.format("throughput %.1f req/s is below %.0f%% of %.1f", report.throughput(),
+                        minThroughputRatio * 100, rate));
+    }
+
+    private Map<String, Integer> weights() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            weights.put(nameAndWeight[0].trim(), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    private double weightShare(String operation) {
+        Map<String, Integer> weights = weights();
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        return total == 0 ? 0 : weights.getOrDefault(operation, 0) / (double) total;
+    }
+
+    private CompletableFuture<Boolean> succeeds(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() >= 200 && response.statusCode() < 300);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String registration(String email, String userType) {
+        return "{\"userName\":\"Load Test\",\"emailId\":\"" + email + "\",\"password\":\"" + PASSWORD
+                + "\",\"gender\":\"Female\",\"userType\":\"" + userType + "\"}";
+    }
+
+    private String login(String email) {
+        return "{\"emailId\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.mykare.user_management.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+public class HotPathRateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private HotPathRateLimitFilter filter;
+
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("hot");
+        logger.setLevel(Level.DEBUG);
+        filter = new HotPathRateLimitFilter(now::get);
+        filter.setEventsPerSecond(3);
+        filter.start();
+    }
+
+    @Test
+    void testDecide_LimitsMarkedEventsPerLoggerAndSecond() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+        }
+        assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+        assertEquals(FilterReply.DENY, decide(logger, Level.DEBUG));
+
+        // Each logger has its own window
+        Logger other = logger.getLoggerContext().getLogger("other");
+        assertEquals(FilterReply.NEUTRAL, decide(other, Level.INFO));
+
+        now.addAndGet(1000);
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+    }
+
+    @Test
+    void testDecide_IgnoresUnmarkedWarningsAndEnabledChecks() {
+        for (int i = 0; i < 3; i++) {
+            decide(logger, Level.INFO);
+        }
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "unmarked", null, null));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(LogMarkers.HOT_PATH, logger, Level.INFO, null, null, null));
+    }
+
+    @Test
+    void testDecide_DisabledLevelsDoNotConsumeTheBudget() {
+        logger.setLevel(Level.INFO);
+        for (int i = 0; i < 10; i++) {
+            decide(logger, Level.DEBUG);
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+    }
+
+    private FilterReply decide(Logger target, Level level) {
+        return filter.decide(LogMarkers.HOT_PATH, target, level, "event {}", new Object[] { 1 }, null);
+    }
+}
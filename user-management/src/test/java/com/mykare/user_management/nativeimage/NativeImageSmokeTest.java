@@ -0,0 +1,177 @@
+package com.mykare.user_management.nativeimage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the native executable as a separate process, then registers and logs
+ * in against it on the in-memory H2 of the {@code loadtest} profile. Startup
+ * time is measured from process launch until {@code /actuator/health} answers.
+ * Resident memory is read from {@code /proc} once login has succeeded. The same
+ * measurements are taken from the JVM fat jar, when it has been built, and
+ * both are logged side by side.
+ *
+ * Excluded from {@code mvn test}; {@code mvn -Pnative verify} builds the
+ * executable and runs this against it.
+ */
+@Tag("native")
+public class NativeImageSmokeTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NativeImageSmokeTest.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(Long.getLong("native.startupTimeoutSeconds", 120));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    @Test
+    void testRegisterAndLogin_NativeExecutable() throws Exception {
+        Path executable = Paths.get(System.getProperty("native.executable", "target/user-management"));
+        Assumptions.assumeTrue(Files.isExecutable(executable), "No native executable at " + executable);
+
+        List<String> nativeCommand = new ArrayList<>();
+        nativeCommand.add(executable.toString());
+        Measurement nativeRun = run(nativeCommand, "native");
+
+        Path jar = Paths.get(System.getProperty("native.jvmJar", "target/user-management-0.0.1-SNAPSHOT-exec.jar"));
+        Measurement jvmRun = null;
+        if (Files.isRegularFile(jar)) {
+            List<String> jvmCommand = new ArrayList<>();
+            jvmCommand.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            jvmCommand.add("-jar");
+            jvmCommand.add(jar.toString());
+            jvmRun = run(jvmCommand, "jvm");
+        }
+
+        logger.info("build     startup      RSS\n{}\n{}", nativeRun, jvmRun != null ? jvmRun : "jvm      (no fat jar)");
+    }
+
+    private Measurement run(List<String> command, String label) throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.profiles.active=loadtest");
+        File log = Files.createTempFile("user-management-" + label, ".log").toFile();
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            awaitHealthy(process, port, log);
+            long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+
+            String email = "native-smoke@example.com";
+            HttpResponse<String> registered = send(port, "/user/register", "{\"emailId\":\"" + email
+                    + "\",\"password\":\"Smoke#2024\",\"userName\":\"Smoke Test\",\"gender\":\"Female\",\"userType\":\"USER\"}");
+            assertEquals(200, registered.statusCode(), registered.body());
+
+            HttpResponse<String> loggedIn = send(port, "/user/login",
+                    "{\"emailId\":\"" + email + "\",\"password\":\"Smoke#2024\"}");
+            assertEquals(200, loggedIn.statusCode(), loggedIn.body());
+            JsonNode jwt = objectMapper.readTree(loggedIn.body()).get("jwt");
+            assertNotNull(jwt, loggedIn.body());
+            assertFalse(jwt.asText().isEmpty());
+
+            return new Measurement(label, startupMillis, residentKilobytes(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitHealthy(Process process, int port, File log) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(1)).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                fail("Exited with " + process.exitValue() + " before becoming healthy:\n" + Files.readString(log.toPath()));
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // Retry until the deadline
+            }
+            Thread.sleep(20);
+        }
+        fail("Not healthy after " + STARTUP_TIMEOUT + ":\n" + Files.readString(log.toPath()));
+    }
+
+    private HttpResponse<String> send(int port, String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * VmRSS of the process in kilobytes, or -1 where {@code /proc} is not
+     * available.
+     */
+    private static long residentKilobytes(long pid) throws IOException {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring("VmRSS:".length()).trim().split("\\s+")[0]);
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static final class Measurement {
+
+        private final String label;
+
+        private final long startupMillis;
+
+        private final long residentKilobytes;
+
+        Measurement(String label, long startupMillis, long residentKilobytes) {
+            this.label = label;
+            this.startupMillis = startupMillis;
+            this.residentKilobytes = residentKilobytes;
+        }
+
+        @Override
+        public String toString() {
+            String rss = residentKilobytes < 0 ? "n/a" : (residentKilobytes / 1024) + " MiB";
+            return String.format("%-8s %6d ms %10s", label, startupMillis, rss);
+        }
+    }
+}
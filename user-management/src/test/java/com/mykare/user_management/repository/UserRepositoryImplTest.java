@@ -0,0 +1,161 @@
+package com.mykare.user_management.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+import org.hibernate.SimpleNaturalIdLoadAccess;
+import org.hibernate.query.NativeQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.webModel.UserSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class UserRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private UserRepositoryImpl userRepositoryImpl;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userRepositoryImpl, "meterRegistry", new SimpleMeterRegistry());
+        userRepositoryImpl.init();
+    }
+
+    @Test
+    void testFindByEmailIdNormalized_UsesNaturalIdLoad() {
+        Session session = mock(Session.class);
+        @SuppressWarnings("unchecked")
+        SimpleNaturalIdLoadAccess<User> naturalIdAccess = mock(SimpleNaturalIdLoadAccess.class);
+        User user = new User();
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.bySimpleNaturalId(User.class)).thenReturn(naturalIdAccess);
+        when(naturalIdAccess.loadOptional("admin@example.com")).thenReturn(Optional.of(user));
+
+        assertSame(user, userRepositoryImpl.findByEmailIdNormalized("admin@example.com").get());
+        verify(entityManager, never()).createQuery(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    void testUpdateLocation_BulkUpdatesAndEvictsOnlyTheseUsers() {
+        Session session = mock(Session.class);
+        NativeQuery update = mock(NativeQuery.class, RETURNS_SELF);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.createNativeQuery(anyString())).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(2);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        int updated = userRepositoryImpl.updateLocation(List.of(1, 2, 3), "203.0.113.7", "India");
+
+        assertEquals(2, updated);
+        verify(session, times(1)).createNativeQuery(anyString());
+        verify(update).setParameterList("userIds", List.of(1, 2, 3));
+        verify(update).addSynchronizedQuerySpace(anyString());
+        verify(update, never()).addSynchronizedEntityClass((Class<?>) any());
+        verify(cache).evict(User.class, 1);
+        verify(cache).evict(User.class, 3);
+        verify(cache, never()).evict(User.class);
+        verify(entityManager, never()).find(eq(User.class), any());
+    }
+
+    @Test
+    void testUpdateLocation_EvictsAgainAfterCommit() {
+        Session session = mock(Session.class);
+        NativeQuery update = mock(NativeQuery.class, RETURNS_SELF);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.createNativeQuery(anyString())).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(1);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userRepositoryImpl.updateLocation(List.of(4), "203.0.113.7", "India");
+            verify(cache, times(1)).evict(User.class, 4);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(cache, times(2)).evict(User.class, 4);
+    }
+
+    @Test
+    void testUpdateLocation_SkipsEmptyBatch() {
+        assertEquals(0, userRepositoryImpl.updateLocation(List.of(), "203.0.113.7", "India"));
+
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindPageAfter_LeavesUnsetFiltersOutOfTheQuery() {
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        CriteriaQuery<Tuple> query = mock(CriteriaQuery.class, RETURNS_SELF);
+        Root<User> root = mock(Root.class);
+        TypedQuery<Tuple> typedQuery = mock(TypedQuery.class, RETURNS_SELF);
+        Tuple row = mock(Tuple.class);
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createTupleQuery()).thenReturn(query);
+        when(query.from(User.class)).thenReturn(root);
+        when(root.get(anyString())).thenReturn(mock(Path.class));
+        when(entityManager.createQuery(query)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of(row));
+        when(row.get(0, Integer.class)).thenReturn(11);
+
+        List<UserSummary> page = userRepositoryImpl.findPageAfter(10, null, "India", null, null, PageRequest.of(0, 5));
+
+        assertEquals(11, page.get(0).getUserId());
+        // Only the country filter is set; null filters must not reach the SQL as untyped parameters
+        verify(cb, times(1)).equal(any(), any(Object.class));
+        verify(cb).equal(any(), eq("India"));
+        verify(cb, never()).greaterThanOrEqualTo(any(), any(Date.class));
+        verify(cb, never()).lessThan(any(), any(Date.class));
+        verify(typedQuery).setMaxResults(5);
+    }
+
+    @Test
+    void testUpdatePassword_MissingUser() {
+        when(entityManager.find(User.class, 9)).thenReturn(null);
+
+        assertEquals(0, userRepositoryImpl.updatePassword(9, "$2a$12$hash"));
+    }
+}
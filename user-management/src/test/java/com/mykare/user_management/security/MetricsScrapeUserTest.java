@@ -0,0 +1,46 @@
+package com.mykare.user_management.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class MetricsScrapeUserTest {
+
+    private MetricsScrapeUser metricsScrapeUser;
+
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        metricsScrapeUser = new MetricsScrapeUser();
+        ReflectionTestUtils.setField(metricsScrapeUser, "username", "prometheus");
+        ReflectionTestUtils.setField(metricsScrapeUser, "passwordEncoder", passwordEncoder);
+    }
+
+    @Test
+    void testFind_NoAccountWithoutPassword() {
+        ReflectionTestUtils.setField(metricsScrapeUser, "password", "");
+        metricsScrapeUser.init();
+
+        assertTrue(metricsScrapeUser.find("prometheus").isEmpty());
+    }
+
+    @Test
+    void testFind_ReturnsFreshCopyOfTheAccount() {
+        ReflectionTestUtils.setField(metricsScrapeUser, "password", "scrape-secret");
+        metricsScrapeUser.init();
+
+        UserDetails first = metricsScrapeUser.find("prometheus").get();
+        ((org.springframework.security.core.userdetails.User) first).eraseCredentials();
+        UserDetails second = metricsScrapeUser.find("prometheus").get();
+
+        assertTrue(passwordEncoder.matches("scrape-secret", second.getPassword()));
+        assertEquals("ROLE_" + MetricsScrapeUser.ROLE, second.getAuthorities().iterator().next().getAuthority());
+        assertTrue(metricsScrapeUser.find("admin").isEmpty());
+    }
+}
@@ -0,0 +1,157 @@
+package com.mykare.user_management.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.service.serviceImpl.UserDetailsServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthTokenFilterTest {
+
+    @Spy
+    private JwtUtils jwtUtils = new JwtUtils();
+
+    @Spy
+    private TokenRevocationList tokenRevocationList = new TokenRevocationList();
+
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @InjectMocks
+    private AuthTokenFilter authTokenFilter;
+
+    private UserDetailsImpl principal;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "annularSecretKeyforjwtToken");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtils.init();
+        ReflectionTestUtils.setField(tokenRevocationList, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxEntries", 100);
+        ReflectionTestUtils.setField(tokenRevocationList, "bloomBits", 1 << 16);
+        ReflectionTestUtils.setField(tokenRevocationList, "meterRegistry", new SimpleMeterRegistry());
+        tokenRevocationList.init();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        verifiedTokenCache.init();
+        ReflectionTestUtils.setField(authTokenFilter, "statelessAuth", true);
+        ReflectionTestUtils.setField(authTokenFilter, "tokenCacheEnabled", true);
+
+        principal = new UserDetailsImpl(7, "Admin User", "admin@example.com", "ADMIN", 0, "encoded", Set.of());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testStatelessAuth_BuildsPrincipalFromClaimsWithoutLookup() throws Exception {
+        MockHttpServletRequest request = bearerRequest(jwtUtils.generateJwtToken(principal));
+
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        UserDetailsImpl authenticated = (UserDetailsImpl) authentication.getPrincipal();
+        assertEquals(7, authenticated.getId());
+        assertEquals("admin@example.com", authenticated.getUserEmailId());
+        assertEquals("ADMIN", authenticated.getUserType());
+        assertNull(authenticated.getPassword());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testStatelessAuth_RevokedTokenIsRejected() throws Exception {
+        MockHttpServletRequest request = bearerRequest(jwtUtils.generateJwtToken(principal));
+        tokenRevocationList.revokeAll(7);
+
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testTokenCache_RepeatedTokenIsVerifiedOnce() throws Exception {
+        String jwt = jwtUtils.generateJwtToken(principal);
+
+        authTokenFilter.doFilter(bearerRequest(jwt), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        authTokenFilter.doFilter(bearerRequest(jwt), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtils, times(1)).verifyJwtToken(jwt);
+        assertEquals(1, verifiedTokenCache.stats().hitCount());
+    }
+
+    @Test
+    void testTokenCache_CachedTokenIsStillCheckedForRevocation() throws Exception {
+        String jwt = jwtUtils.generateJwtToken(principal);
+        authTokenFilter.doFilter(bearerRequest(jwt), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+
+        tokenRevocationList.revokeAll(7);
+        authTokenFilter.doFilter(bearerRequest(jwt), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testStatelessAuth_LoggedOutTokenIsRejectedButOtherTokensAreNot() throws Exception {
+        String loggedOut = jwtUtils.generateJwtToken(principal);
+        String otherSession = jwtUtils.generateJwtToken(principal);
+        VerifiedJwt verifiedJwt = jwtUtils.verifyJwtToken(loggedOut);
+        tokenRevocationList.revoke(verifiedJwt.getTokenId(), verifiedJwt.getExpiration().getTime());
+
+        authTokenFilter.doFilter(bearerRequest(loggedOut), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        authTokenFilter.doFilter(bearerRequest(otherSession), new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDatabaseAuth_LoadsPrincipalWhenStatelessModeIsOff() throws Exception {
+        ReflectionTestUtils.setField(authTokenFilter, "statelessAuth", false);
+        when(userDetailsService.loadUserByUsername("admin@example.com^ADMIN")).thenReturn(principal);
+
+        authTokenFilter.doFilter(bearerRequest(jwtUtils.generateJwtToken(principal)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, times(1)).loadUserByUsername("admin@example.com^ADMIN");
+    }
+
+    private MockHttpServletRequest bearerRequest(String jwt) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/getAllUsers");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mykare.user_management.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.security.UserDetailsImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserDetailsImpl principal;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "annularSecretKeyforjwtToken");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", meterRegistry);
+        jwtUtils.init();
+
+        principal = new UserDetailsImpl(3, "Normal User", "user@example.com", "USER", 2, "encoded", Set.of());
+    }
+
+    @Test
+    void testVerifyJwtToken_ReturnsAllClaimsFromOneParse() {
+        VerifiedJwt verifiedJwt = jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(principal));
+
+        assertNotNull(verifiedJwt);
+        assertEquals(3, verifiedJwt.getUserId());
+        assertEquals("Normal User", verifiedJwt.getUserName());
+        assertEquals("user@example.com", verifiedJwt.getUserEmailId());
+        assertEquals("USER", verifiedJwt.getUserType());
+        assertEquals(2, verifiedJwt.getTokenVersion());
+        assertTrue(verifiedJwt.getExpiration().getTime() > System.currentTimeMillis());
+    }
+
+    @Test
+    void testVerifyJwtToken_RejectsTokenSignedWithAnotherSecret() {
+        JwtUtils otherIssuer = new JwtUtils();
+        ReflectionTestUtils.setField(otherIssuer, "jwtSecret", "someOtherSecret");
+        ReflectionTestUtils.setField(otherIssuer, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(otherIssuer, "meterRegistry", new SimpleMeterRegistry());
+        otherIssuer.init();
+
+        String foreignToken = otherIssuer.generateJwtToken(principal);
+
+        assertNull(jwtUtils.verifyJwtToken(foreignToken));
+        assertFalse(jwtUtils.validateJwtToken(foreignToken));
+        assertEquals(2.0, meterRegistry.counter("jwt.verify.failed", "cause", "signature").count());
+    }
+
+    @Test
+    void testVerifyJwtToken_RejectsMalformedToken() {
+        assertNull(jwtUtils.verifyJwtToken("not-a-jwt"));
+        assertEquals(1.0, meterRegistry.counter("jwt.verify.failed", "cause", "malformed").count());
+        assertEquals(1, meterRegistry.timer("jwt.verify").count());
+    }
+}
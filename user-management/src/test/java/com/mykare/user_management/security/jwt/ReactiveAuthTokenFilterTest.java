@@ -0,0 +1,135 @@
+package com.mykare.user_management.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.repository.ReactiveUserRepository;
+import com.mykare.user_management.security.UserDetailsImpl;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveAuthTokenFilterTest {
+
+    @Spy
+    private JwtUtils jwtUtils = new JwtUtils();
+
+    @Spy
+    private TokenRevocationList tokenRevocationList = new TokenRevocationList();
+
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @InjectMocks
+    private ReactiveAuthTokenFilter reactiveAuthTokenFilter;
+
+    private UserDetailsImpl principal;
+
+    private final AtomicReference<Authentication> seenAuthentication = new AtomicReference<>();
+
+    private int chainCalls;
+
+    private final WebFilterChain chain = exchange -> {
+        chainCalls++;
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .doOnNext(seenAuthentication::set)
+                .then();
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "annularSecretKeyforjwtToken");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtils.init();
+        ReflectionTestUtils.setField(tokenRevocationList, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxEntries", 100);
+        ReflectionTestUtils.setField(tokenRevocationList, "bloomBits", 1 << 16);
+        ReflectionTestUtils.setField(tokenRevocationList, "meterRegistry", new SimpleMeterRegistry());
+        tokenRevocationList.init();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        verifiedTokenCache.init();
+        ReflectionTestUtils.setField(reactiveAuthTokenFilter, "statelessAuth", true);
+        ReflectionTestUtils.setField(reactiveAuthTokenFilter, "tokenCacheEnabled", true);
+
+        principal = new UserDetailsImpl(7, "Admin User", "admin@example.com", "ADMIN", 0, "encoded", Set.of());
+    }
+
+    @Test
+    void testStatelessAuth_PutsPrincipalIntoReactorContext() {
+        reactiveAuthTokenFilter.filter(bearerExchange(jwtUtils.generateJwtToken(principal)), chain).block();
+
+        assertNotNull(seenAuthentication.get());
+        UserDetailsImpl authenticated = (UserDetailsImpl) seenAuthentication.get().getPrincipal();
+        assertEquals(7, authenticated.getId());
+        assertNull(authenticated.getPassword());
+        assertEquals(1, chainCalls);
+        verify(userRepository, never()).findByEmailIdNormalized(anyString());
+    }
+
+    @Test
+    void testStatelessAuth_RevokedTokenContinuesUnauthenticated() {
+        tokenRevocationList.revokeAll(7);
+
+        reactiveAuthTokenFilter.filter(bearerExchange(jwtUtils.generateJwtToken(principal)), chain).block();
+
+        assertNull(seenAuthentication.get());
+        assertEquals(1, chainCalls);
+    }
+
+    @Test
+    void testInvalidToken_ContinuesUnauthenticated() {
+        reactiveAuthTokenFilter.filter(bearerExchange("not-a-jwt"), chain).block();
+
+        assertNull(seenAuthentication.get());
+        assertEquals(1, chainCalls);
+    }
+
+    @Test
+    void testDatabaseAuth_LoadsPrincipalWhenStatelessModeIsOff() {
+        ReflectionTestUtils.setField(reactiveAuthTokenFilter, "statelessAuth", false);
+        User user = new User();
+        user.setUserId(7);
+        user.setEmailId("admin@example.com");
+        user.setUserType("ADMIN");
+        user.setTokenVersion(0);
+        when(userRepository.findByEmailIdNormalized("admin@example.com")).thenReturn(Mono.just(user));
+
+        reactiveAuthTokenFilter.filter(bearerExchange(jwtUtils.generateJwtToken(principal)), chain).block();
+
+        assertNotNull(seenAuthentication.get());
+        verify(userRepository, times(1)).findByEmailIdNormalized("admin@example.com");
+    }
+
+    private static MockServerWebExchange bearerExchange(String jwt) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/user/getAllUsers")
+                .header("Authorization", "Bearer " + jwt));
+    }
+}
@@ -0,0 +1,177 @@
+package com.mykare.user_management.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.model.RefreshToken;
+import com.mykare.user_management.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RefreshTokenStoreTest {
+
+    private static final long TICK_MS = 1000;
+
+    private RefreshTokenStore refreshTokenStore;
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        refreshTokenStore = new RefreshTokenStore();
+        ReflectionTestUtils.setField(refreshTokenStore, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenStore, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(refreshTokenStore, "expirationMs", 60_000L);
+        ReflectionTestUtils.setField(refreshTokenStore, "shardCount", 4);
+        ReflectionTestUtils.setField(refreshTokenStore, "maxInMemory", 1000);
+        ReflectionTestUtils.setField(refreshTokenStore, "wheelTickMs", TICK_MS);
+        ReflectionTestUtils.setField(refreshTokenStore, "wheelSlots", 8);
+        // Flushed by the tests themselves
+        ReflectionTestUtils.setField(refreshTokenStore, "flushMs", 3_600_000L);
+        ReflectionTestUtils.setField(refreshTokenStore, "flushBatchSize", 2);
+        refreshTokenStore.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenStore.stop();
+    }
+
+    @Test
+    void testRedeem_WorksOnceWithoutDatabaseAccess() {
+        String token = refreshTokenStore.issue(7);
+
+        assertEquals(7, refreshTokenStore.redeem(token));
+        // Redeemed before the flush, so the row is neither inserted nor deleted
+        refreshTokenStore.flush();
+        verifyNoInteractions(refreshTokenRepository);
+
+        // The second attempt misses memory and finds no row
+        when(refreshTokenRepository.findById(anyString())).thenReturn(Optional.empty());
+        assertNull(refreshTokenStore.redeem(token));
+        assertEquals(0, refreshTokenStore.cachedTokenCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIssue_StoresOnlyTheHashOnFlush() {
+        String token = refreshTokenStore.issue(7);
+        verifyNoInteractions(refreshTokenRepository);
+
+        refreshTokenStore.flush();
+
+        ArgumentCaptor<Iterable<RefreshToken>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(refreshTokenRepository).saveAll(saved.capture());
+        RefreshToken row = saved.getValue().iterator().next();
+        assertNotEquals(token, row.getTokenHash());
+        assertEquals(43, row.getTokenHash().length());
+        assertEquals(7, row.getUserId());
+        assertEquals(0, refreshTokenStore.pendingWriteCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedeem_DeletesWrittenRowOnNextFlushAndRejectsReplayMeanwhile() {
+        String token = refreshTokenStore.issue(7);
+        refreshTokenStore.flush();
+
+        assertEquals(7, refreshTokenStore.redeem(token));
+        // The row is still in the table, but the replay is rejected without reading it
+        assertNull(refreshTokenStore.redeem(token));
+        verify(refreshTokenRepository, never()).findById(anyString());
+
+        refreshTokenStore.flush();
+
+        ArgumentCaptor<Iterable<String>> deleted = ArgumentCaptor.forClass(Iterable.class);
+        verify(refreshTokenRepository).deleteAllByIdInBatch(deleted.capture());
+        assertEquals(1, ((List<String>) deleted.getValue()).size());
+        assertEquals(0, refreshTokenStore.pendingWriteCount());
+    }
+
+    @Test
+    void testFlush_KeepsFailedInsertsForTheNextFlush() {
+        refreshTokenStore.issue(1);
+        refreshTokenStore.issue(2);
+        refreshTokenStore.issue(3);
+        when(refreshTokenRepository.saveAll(any())).thenThrow(new RuntimeException("Database down")).thenReturn(null);
+
+        assertThrows(RuntimeException.class, () -> refreshTokenStore.flush());
+        assertEquals(3, refreshTokenStore.pendingWriteCount());
+
+        refreshTokenStore.flush();
+        // Batches of two: the failed one, then two more for the three rows
+        verify(refreshTokenRepository, times(3)).saveAll(any());
+        assertEquals(0, refreshTokenStore.pendingWriteCount());
+    }
+
+    @Test
+    void testRedeem_FallsBackToTableForTokensIssuedElsewhere() {
+        when(refreshTokenRepository.findById(anyString())).thenReturn(
+                Optional.of(new RefreshToken("hash", 9, new Date(System.currentTimeMillis() + 60_000), null)));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+
+        assertEquals(9, refreshTokenStore.redeem("issued-by-another-instance"));
+    }
+
+    @Test
+    void testRedeem_RejectsWhenAnotherRequestDeletedTheRowFirst() {
+        when(refreshTokenRepository.findById(anyString())).thenReturn(
+                Optional.of(new RefreshToken("hash", 9, new Date(System.currentTimeMillis() + 60_000), null)));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(0);
+
+        assertNull(refreshTokenStore.redeem("issued-by-another-instance"));
+    }
+
+    @Test
+    void testRedeem_RejectsExpiredRow() {
+        when(refreshTokenRepository.findById(anyString())).thenReturn(
+                Optional.of(new RefreshToken("hash", 9, new Date(System.currentTimeMillis() - 1), null)));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+
+        assertNull(refreshTokenStore.redeem("expired"));
+        assertNull(refreshTokenStore.redeem(null));
+    }
+
+    @Test
+    void testExpire_WheelDropsEntriesOnceTheirTickHasPassed() {
+        refreshTokenStore.issue(1);
+        refreshTokenStore.issue(2);
+        assertEquals(2, refreshTokenStore.cachedTokenCount());
+
+        long now = System.currentTimeMillis();
+        refreshTokenStore.expire(now + 30_000);
+        assertEquals(2, refreshTokenStore.cachedTokenCount());
+
+        // Past expiry plus the tick the entries were filed under, and several turns of the 8-slot wheel
+        refreshTokenStore.expire(now + 60_000 + 2 * TICK_MS);
+        assertEquals(0, refreshTokenStore.cachedTokenCount());
+        verify(refreshTokenRepository, atLeast(2)).deleteExpired(any(Date.class));
+    }
+
+    @Test
+    void testRevokeAll_DropsOnlyThatUsersTokens() {
+        refreshTokenStore.issue(1);
+        refreshTokenStore.issue(1);
+        refreshTokenStore.issue(2);
+
+        refreshTokenStore.revokeAll(1);
+
+        assertEquals(1, refreshTokenStore.cachedTokenCount());
+        verify(refreshTokenRepository).deleteByUserId(1);
+        // The revoked tokens are not written behind the delete
+        assertEquals(1, refreshTokenStore.pendingWriteCount());
+    }
+}
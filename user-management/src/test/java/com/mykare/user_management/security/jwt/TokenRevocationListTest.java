@@ -0,0 +1,66 @@
+package com.mykare.user_management.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TokenRevocationListTest {
+
+    private TokenRevocationList tokenRevocationList;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenRevocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(tokenRevocationList, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tokenRevocationList, "jwtExpirationMs", 600000);
+        ReflectionTestUtils.setField(tokenRevocationList, "maxEntries", 100);
+        ReflectionTestUtils.setField(tokenRevocationList, "bloomBits", 1 << 16);
+        tokenRevocationList.init();
+    }
+
+    @Test
+    void testIsRevoked_UnrevokedTokensAreAnsweredByTheFilter() {
+        long now = System.currentTimeMillis() / 1000;
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(tokenRevocationList.isRevoked(i, "token-" + i, now));
+        }
+        // An empty filter never sends a check on to the maps
+        assertEquals(0, meterRegistry.counter("jwt.revocation.bloom.hit").count());
+    }
+
+    @Test
+    void testRevoke_RejectsOnlyThatToken() {
+        long now = System.currentTimeMillis();
+        tokenRevocationList.revoke("logged-out", now + 60_000);
+
+        assertTrue(tokenRevocationList.isRevoked(7, "logged-out", now / 1000));
+        assertFalse(tokenRevocationList.isRevoked(7, "still-valid", now / 1000));
+    }
+
+    @Test
+    void testRevoke_IgnoresTokensThatHaveAlreadyExpired() {
+        tokenRevocationList.revoke("expired", System.currentTimeMillis() - 1);
+
+        assertFalse(tokenRevocationList.isRevoked(7, "expired", 0));
+        assertEquals(0, tokenRevocationList.size());
+    }
+
+    @Test
+    void testRevokeAll_RejectsTokensIssuedUpToTheRevocation() {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        tokenRevocationList.revokeAll(7);
+
+        assertTrue(tokenRevocationList.isRevoked(7, "before", nowSeconds - 60));
+        assertTrue(tokenRevocationList.isRevoked(7, null, nowSeconds));
+        assertFalse(tokenRevocationList.isRevoked(7, "after", nowSeconds + 2));
+        assertFalse(tokenRevocationList.isRevoked(8, "other-user", nowSeconds - 60));
+        assertEquals(2, meterRegistry.counter("jwt.revocation.rejected").count());
+    }
+}
@@ -0,0 +1,81 @@
+package com.mykare.user_management.security.throttle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class InMemoryRateLimiterBackendTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void testTryAcquire_AllowsBurstThenRefillsOneTokenPerInterval() {
+        InMemoryRateLimiterBackend backend = new InMemoryRateLimiterBackend(4, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, backend.tryAcquire("email:a@example.com", 3, SECOND));
+        }
+        assertEquals(SECOND, backend.tryAcquire("email:a@example.com", 3, SECOND));
+
+        now.addAndGet(SECOND / 2);
+        assertEquals(SECOND / 2, backend.tryAcquire("email:a@example.com", 3, SECOND));
+
+        now.addAndGet(SECOND / 2);
+        assertEquals(0, backend.tryAcquire("email:a@example.com", 3, SECOND));
+        assertTrue(backend.tryAcquire("email:a@example.com", 3, SECOND) > 0);
+
+        // Other keys have their own bucket
+        assertEquals(0, backend.tryAcquire("email:b@example.com", 3, SECOND));
+    }
+
+    @Test
+    void testTryAcquire_EvictsRefilledBucketsToStayBounded() {
+        InMemoryRateLimiterBackend backend = new InMemoryRateLimiterBackend(1, 10, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            backend.tryAcquire("ip:10.0.0." + i, 5, SECOND);
+        }
+        assertEquals(10, backend.size());
+
+        now.addAndGet(5 * SECOND);
+        backend.tryAcquire("ip:10.0.1.1", 5, SECOND);
+
+        assertEquals(1, backend.size());
+    }
+
+    @Test
+    void testTryAcquire_NeverGrantsMoreThanCapacityUnderContention() throws Exception {
+        InMemoryRateLimiterBackend backend = new InMemoryRateLimiterBackend(16, 1000, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        if (backend.tryAcquire("ip:203.0.113.1", 50, SECOND) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(50, granted.get());
+    }
+}
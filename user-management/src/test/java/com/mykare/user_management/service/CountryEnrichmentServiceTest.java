@@ -0,0 +1,89 @@
+package com.mykare.user_management.service;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.service.serviceImpl.CountryEnrichmentService;
+import com.mykare.user_management.service.serviceImpl.LocationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class CountryEnrichmentServiceTest {
+
+    @Mock
+    private LocationService locationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CountryEnrichmentService countryEnrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(countryEnrichmentService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(countryEnrichmentService, "queueCapacity", 100);
+        ReflectionTestUtils.setField(countryEnrichmentService, "batchSize", 50);
+        ReflectionTestUtils.setField(countryEnrichmentService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(countryEnrichmentService, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(countryEnrichmentService, "maxBackoffMs", 50L);
+        when(locationService.resolveLookupAddress(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        countryEnrichmentService.stop();
+    }
+
+    @Test
+    void testEnqueue_UpdatesCountryInBackground() {
+        when(locationService.getCountryFromIp("203.0.113.7")).thenReturn("India");
+        countryEnrichmentService.start();
+
+        countryEnrichmentService.enqueue(1, "203.0.113.7");
+
+        verify(userRepository, timeout(2000)).updateLocation(List.of(1), "203.0.113.7", "India");
+    }
+
+    @Test
+    void testEnqueue_RetriesFailedLookupWithBackoff() {
+        when(locationService.getCountryFromIp("203.0.113.8"))
+                .thenThrow(new ResourceAccessException("Read timed out"))
+                .thenReturn("India");
+        countryEnrichmentService.start();
+
+        countryEnrichmentService.enqueue(2, "203.0.113.8");
+
+        verify(userRepository, timeout(2000)).updateLocation(List.of(2), "203.0.113.8", "India");
+        verify(locationService, times(2)).getCountryFromIp("203.0.113.8");
+    }
+
+    @Test
+    void testEnqueue_GivesUpAfterMaxAttempts() {
+        when(locationService.getCountryFromIp("203.0.113.9")).thenThrow(new ResourceAccessException("Read timed out"));
+        countryEnrichmentService.start();
+
+        countryEnrichmentService.enqueue(3, "203.0.113.9");
+
+        verify(locationService, timeout(2000).times(3)).getCountryFromIp("203.0.113.9");
+        verify(userRepository, after(200).never()).updateLocation(anyCollection(), any(), any());
+    }
+}
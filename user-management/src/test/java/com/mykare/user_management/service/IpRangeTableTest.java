@@ -0,0 +1,74 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mykare.user_management.service.serviceImpl.IpRangeTable;
+import com.mykare.user_management.util.IpAddresses;
+
+public class IpRangeTableTest {
+
+    private IpRangeTable ipRangeTable;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String csv = "network,country\n"
+                + "# sample dataset\n"
+                + "200.0.0.0,200.0.0.255,Brazil\n"
+                + "10.0.0.0/8,\"Korea, Republic of\"\n"
+                + "255.255.255.0/24,Reserved\n"
+                + "2001:db8::/32,Documentation\n"
+                + "2400:cb00::,2400:cb00::ffff,India\n";
+        ipRangeTable = IpRangeTable.load(new StringReader(csv));
+    }
+
+    @Test
+    void testLookup_Ipv4RangesAndCidrs() {
+        assertEquals("Korea, Republic of", ipRangeTable.lookup("10.20.30.40"));
+        assertEquals("Brazil", ipRangeTable.lookup("200.0.0.255"));
+        assertEquals("Reserved", ipRangeTable.lookup("255.255.255.255"));
+        assertNull(ipRangeTable.lookup("9.255.255.255"));
+        assertNull(ipRangeTable.lookup("200.0.1.0"));
+        assertEquals(3, ipRangeTable.ipv4RangeCount());
+    }
+
+    @Test
+    void testLookup_Ipv6RangesAndCidrs() {
+        assertEquals("Documentation", ipRangeTable.lookup("2001:db8:ffff::1"));
+        assertEquals("India", ipRangeTable.lookup("2400:cb00::10"));
+        assertNull(ipRangeTable.lookup("2400:cb00::1:0"));
+        assertNull(ipRangeTable.lookup("::1"));
+        assertEquals(2, ipRangeTable.ipv6RangeCount());
+    }
+
+    @Test
+    void testLookup_RejectsNonLiterals() {
+        assertNull(ipRangeTable.lookup("localhost"));
+        assertNull(ipRangeTable.lookup("10.0.0"));
+    }
+
+    @Test
+    void testParseIpv6_CompressedAndEmbeddedForms() {
+        long[] address = new long[2];
+
+        assertTrue(IpAddresses.parseIpv6("2001:db8::1", address));
+        assertEquals(0x20010db800000000L, address[0]);
+        assertEquals(1L, address[1]);
+
+        assertTrue(IpAddresses.parseIpv6("::ffff:1.2.3.4", address));
+        assertEquals(0L, address[0]);
+        assertEquals(0x0000ffff01020304L, address[1]);
+
+        assertTrue(IpAddresses.parseIpv6("fe80::1%eth0", address));
+        assertEquals(0xfe80000000000000L, address[0]);
+
+        assertFalse(IpAddresses.parseIpv6("1::2::3", address));
+        assertFalse(IpAddresses.parseIpv6("1:2:3:4:5:6:7:8:9", address));
+        assertFalse(IpAddresses.parseIpv6("12345::", address));
+    }
+}
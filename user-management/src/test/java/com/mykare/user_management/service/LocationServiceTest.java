@@ -0,0 +1,87 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.mykare.user_management.service.serviceImpl.LocationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationServiceTest {
+
+    @Mock
+    private GeoLocationProvider geoLocationProvider;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LocationService locationService;
+
+    @BeforeEach
+    void setUp() {
+        locationService = new LocationService(new RestTemplateBuilder(), 2000, 3000);
+        ReflectionTestUtils.setField(locationService, "geoLocationProvider", geoLocationProvider);
+        ReflectionTestUtils.setField(locationService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(locationService, "ipv4PrefixLength", 24);
+        ReflectionTestUtils.setField(locationService, "ipv6PrefixLength", 48);
+        ReflectionTestUtils.setField(locationService, "maxEntries", 1000L);
+        ReflectionTestUtils.setField(locationService, "ttlMinutes", 1440L);
+        ReflectionTestUtils.setField(locationService, "negativeTtlMinutes", 5L);
+        ReflectionTestUtils.setField(locationService, "publicIpTtlMinutes", 10L);
+        locationService.init();
+    }
+
+    @Test
+    void testGetCountryFromIp_SharesLookupAcrossIpv4Prefix() {
+        when(geoLocationProvider.getCountryFromIp("203.0.113.7")).thenReturn("India");
+
+        assertEquals("India", locationService.getCountryFromIp("203.0.113.7"));
+        assertEquals("India", locationService.getCountryFromIp("203.0.113.200"));
+
+        verify(geoLocationProvider, times(1)).getCountryFromIp(anyString());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "geo.country").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testGetCountryFromIp_SharesLookupAcrossIpv6Prefix() {
+        when(geoLocationProvider.getCountryFromIp("2001:db8:1::1")).thenReturn("Germany");
+        when(geoLocationProvider.getCountryFromIp("2001:db8:2::1")).thenReturn("France");
+
+        assertEquals("Germany", locationService.getCountryFromIp("2001:db8:1::1"));
+        assertEquals("Germany", locationService.getCountryFromIp("2001:db8:1:ffff::9"));
+        assertEquals("France", locationService.getCountryFromIp("2001:db8:2::1"));
+
+        verify(geoLocationProvider, times(2)).getCountryFromIp(anyString());
+    }
+
+    @Test
+    void testGetCountryFromIp_CachesUnknownResult() {
+        when(geoLocationProvider.getCountryFromIp("198.51.100.1")).thenReturn(GeoLocationProvider.UNKNOWN_COUNTRY);
+
+        locationService.getCountryFromIp("198.51.100.1");
+        locationService.getCountryFromIp("198.51.100.1");
+
+        verify(geoLocationProvider, times(1)).getCountryFromIp("198.51.100.1");
+    }
+
+    @Test
+    void testGetCountryFromIp_DoesNotCacheFailures() {
+        when(geoLocationProvider.getCountryFromIp("192.0.2.1"))
+                .thenThrow(new ResourceAccessException("Read timed out"))
+                .thenReturn("Japan");
+
+        assertThrows(ResourceAccessException.class, () -> locationService.getCountryFromIp("192.0.2.1"));
+        assertEquals("Japan", locationService.getCountryFromIp("192.0.2.1"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.service.serviceImpl.PasswordHashingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.stop();
+    }
+
+    @Test
+    void testEncodeAndMatches_UseConfiguredCost() {
+        start(5, 2, 8);
+
+        String hash = passwordHashingService.encode("password123");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(passwordHashingService.matches("password123", hash));
+        assertFalse(passwordHashingService.matches("wrong", hash));
+    }
+
+    @Test
+    void testUpgradeEncoding_OnlyForLowerCost() {
+        start(5, 1, 8);
+
+        assertTrue(passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+        assertFalse(passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password123")));
+    }
+
+    @Test
+    void testEncodeAsync_RejectsWhenQueueIsFull() {
+        start(12, 1, 1);
+
+        List<CompletableFuture<String>> accepted = new ArrayList<>();
+        PasswordHashingService.SaturatedException rejected = assertThrows(
+                PasswordHashingService.SaturatedException.class, () -> {
+                    for (int i = 0; i < 10; i++) {
+                        accepted.add(passwordHashingService.encodeAsync("password" + i));
+                    }
+                });
+
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertTrue(accepted.size() >= 2);
+        accepted.forEach(CompletableFuture::join);
+    }
+
+    @Test
+    void testCalibration_StaysWithinBounds() {
+        passwordHashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "minCost", 4);
+        ReflectionTestUtils.setField(passwordHashingService, "maxCost", 6);
+        ReflectionTestUtils.setField(passwordHashingService, "targetMillis", 10_000L);
+        passwordHashingService.start();
+
+        assertEquals(6, passwordHashingService.getCost());
+    }
+
+    private void start(int cost, int threads, int queueCapacity) {
+        passwordHashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(passwordHashingService, "fixedCost", cost);
+        ReflectionTestUtils.setField(passwordHashingService, "threads", threads);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(passwordHashingService, "retryAfterSeconds", 3);
+        passwordHashingService.start();
+    }
+}
@@ -0,0 +1,217 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mykare.user_management.Response;
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.repository.ReactiveUserRepository;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.JwtResponse;
+import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.TokenRevocationList;
+import com.mykare.user_management.security.throttle.LoginThrottle;
+import com.mykare.user_management.service.serviceImpl.PasswordHashingService;
+import com.mykare.user_management.service.serviceImpl.ReactiveGeoLocationClient;
+import com.mykare.user_management.service.serviceImpl.ReactiveUserServiceImpl;
+import com.mykare.user_management.service.serviceImpl.UserSearchIndex;
+import com.mykare.user_management.webModel.UserSummary;
+import com.mykare.user_management.webModel.UserWebModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactiveGeoLocationClient geoLocationClient;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @InjectMocks
+    private ReactiveUserServiceImpl userService;
+
+    private UserDetailsImpl admin;
+
+    private UserDetailsImpl normalUser;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(userService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(userService, "fetchSize", 200);
+        ReflectionTestUtils.setField(userService, "enrichmentCapacity", 100);
+        ReflectionTestUtils.setField(userService, "maxAttempts", 1);
+        userService.init();
+
+        admin = new UserDetailsImpl(1, "Admin User", "admin@example.com", "ADMIN", 0, null, Set.of());
+        normalUser = new UserDetailsImpl(2, "Normal User", "user@example.com", "USER", 0, null, Set.of());
+    }
+
+    @Test
+    void testRegister_StoresNormalizedEmailAndHash() {
+        when(passwordHashingService.encodeAsync("Secret#1")).thenReturn(CompletableFuture.completedFuture("hashed"));
+        when(userRepository.insert(any(User.class))).thenReturn(Mono.just(5));
+        when(geoLocationClient.resolveLookupAddress("203.0.113.5")).thenReturn(Mono.just("203.0.113.5"));
+        when(geoLocationClient.getCountryFromIp("203.0.113.5")).thenReturn(Mono.just("India"));
+        when(userRepository.updateLocation(5, "203.0.113.5", "India")).thenReturn(Mono.just(1));
+
+        ResponseEntity<?> response = userService.register(registration(" New.User@Example.com "), "203.0.113.5").block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).insert(saved.capture());
+        assertEquals("new.user@example.com", saved.getValue().getEmailIdNormalized());
+        assertEquals("hashed", saved.getValue().getPassword());
+        verify(userRepository).updateLocation(5, "203.0.113.5", "India");
+        verify(userSearchIndex).add(5, "New User", " New.User@Example.com ");
+    }
+
+    @Test
+    void testRegister_DuplicateEmailIsRejected() {
+        when(passwordHashingService.encodeAsync("Secret#1")).thenReturn(CompletableFuture.completedFuture("hashed"));
+        when(userRepository.insert(any(User.class)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("ux_users_email_id_normalized")));
+
+        ResponseEntity<?> response = userService.register(registration("admin@example.com"), "203.0.113.5").block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("fail", ((Response) response.getBody()).getMessage());
+        verifyNoInteractions(geoLocationClient);
+    }
+
+    @Test
+    void testLogin_ReturnsTokenForMatchingPassword() {
+        User user = storedUser();
+        when(userRepository.findByEmailIdNormalized("admin@example.com")).thenReturn(Mono.just(user));
+        when(passwordHashingService.matchesAsync("Secret#1", "hashed")).thenReturn(CompletableFuture.completedFuture(true));
+        when(jwtUtils.generateJwtToken(any(UserDetailsImpl.class))).thenReturn("token");
+
+        ResponseEntity<?> response = userService.login(registration("Admin@Example.com"), "203.0.113.5").block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JwtResponse body = (JwtResponse) response.getBody();
+        assertEquals("token", body.getJwt());
+        assertEquals(1, body.getId());
+    }
+
+    @Test
+    void testLogin_WrongPasswordIsUnauthorized() {
+        when(userRepository.findByEmailIdNormalized("admin@example.com")).thenReturn(Mono.just(storedUser()));
+        when(passwordHashingService.matchesAsync("Secret#1", "hashed")).thenReturn(CompletableFuture.completedFuture(false));
+
+        ResponseEntity<?> response = userService.login(registration("admin@example.com"), "203.0.113.5").block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(jwtUtils, never()).generateJwtToken(any(UserDetailsImpl.class));
+    }
+
+    @Test
+    void testLogin_UnknownEmailSkipsPasswordCheck() {
+        when(userRepository.findByEmailIdNormalized("nobody@example.com")).thenReturn(Mono.empty());
+
+        ResponseEntity<?> response = userService.login(registration("nobody@example.com"), "203.0.113.5").block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(passwordHashingService, never()).matchesAsync(any(), anyString());
+    }
+
+    @Test
+    void testGetAllUsers_AdminGetsRowStream() {
+        UserSummary row = mock(UserSummary.class);
+        when(userRepository.findAllSummaries()).thenReturn(Flux.just(row, row, row));
+
+        ResponseEntity<?> response = userService.getAllUsers(admin).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<?> rows = ((Flux<?>) response.getBody()).collectList().block();
+        assertEquals(3, rows.size());
+    }
+
+    @Test
+    void testGetAllUsers_NonAdminIsForbidden() {
+        ResponseEntity<?> response = userService.getAllUsers(normalUser).block();
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testDeleteUser_RevokesTokensOfDeletedUser() {
+        when(userRepository.deleteById(2)).thenReturn(Mono.just(1));
+        when(userRepository.deleteRefreshTokens(2)).thenReturn(Mono.just(1));
+
+        ResponseEntity<?> response = userService.deleteUserDetails(2, admin).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(tokenRevocationList).revokeAll(2);
+        verify(userRepository).deleteRefreshTokens(2);
+        verify(userSearchIndex).remove(2);
+    }
+
+    @Test
+    void testDeleteUser_MissingUserIsNotFound() {
+        when(userRepository.deleteById(99)).thenReturn(Mono.just(0));
+
+        ResponseEntity<?> response = userService.deleteUserDetails(99, admin).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(tokenRevocationList, never()).revokeAll(any());
+    }
+
+    private static UserWebModel registration(String emailId) {
+        UserWebModel userWebModel = new UserWebModel();
+        userWebModel.setEmailId(emailId);
+        userWebModel.setPassword("Secret#1");
+        userWebModel.setUserName("New User");
+        userWebModel.setUserType("USER");
+        return userWebModel;
+    }
+
+    private static User storedUser() {
+        User user = new User();
+        user.setUserId(1);
+        user.setEmailId("admin@example.com");
+        user.setUserName("Admin User");
+        user.setUserType("ADMIN");
+        user.setTokenVersion(0);
+        user.setPassword("hashed");
+        return user;
+    }
+}
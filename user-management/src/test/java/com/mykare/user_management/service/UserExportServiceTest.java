@@ -0,0 +1,104 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.service.serviceImpl.UserExportService;
+import com.mykare.user_management.webModel.UserSummary;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private UserExportService userExportService;
+
+    private boolean streamClosed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userExportService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void testExport_CsvQuotesFieldsAndClosesStream() throws Exception {
+        Stream<UserSummary> rows = Stream.of(summary(1, "Doe, \"Jane\""), summary(2, "John"))
+                .onClose(() -> streamClosed = true);
+        when(userRepository.streamAllSummaries()).thenReturn(rows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userExportService.export(UserExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, count);
+        assertEquals("userId,emailId,userName,gender,userType,country,userIsActive,userCreatedOn", lines[0]);
+        assertEquals("1,user1@example.com,\"Doe, \"\"Jane\"\"\",,USER,India,true,1970-01-01T00:00:00Z", lines[1]);
+        assertEquals("2,user2@example.com,John,,USER,India,true,1970-01-01T00:00:00Z", lines[2]);
+        assertTrue(streamClosed);
+    }
+
+    @Test
+    void testExport_CsvNeutralizesFormulas() throws Exception {
+        // Built before the outer when(...): stubbing a mock inside it leaves that stubbing unfinished
+        Stream<UserSummary> rows = Stream.of(summary(1, "=HYPERLINK(\"http://x\")"), summary(2, "-2+3"),
+                summary(3, "@SUM(A1)"), summary(4, "Jane-Doe"));
+        when(userRepository.streamAllSummaries()).thenReturn(rows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.export(UserExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertTrue(lines[1].startsWith("1,user1@example.com,\"'=HYPERLINK(\"\"http://x\"\")\","), lines[1]);
+        assertTrue(lines[2].startsWith("2,user2@example.com,'-2+3,"), lines[2]);
+        assertTrue(lines[3].startsWith("3,user3@example.com,'@SUM(A1),"), lines[3]);
+        assertTrue(lines[4].startsWith("4,user4@example.com,Jane-Doe,"), lines[4]);
+    }
+
+    @Test
+    void testExport_NdjsonWritesOneObjectPerLine() throws Exception {
+        Stream<UserSummary> rows = Stream.of(summary(1, "Jane"), summary(2, "John"));
+        when(userRepository.streamAllSummaries()).thenReturn(rows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.export(UserExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2, second.get("userId").asInt());
+        assertEquals("John", second.get("userName").asText());
+        assertTrue(second.get("gender").isNull());
+    }
+
+    private static UserSummary summary(Integer userId, String userName) {
+        UserSummary summary = mock(UserSummary.class);
+        when(summary.getUserId()).thenReturn(userId);
+        when(summary.getEmailId()).thenReturn("user" + userId + "@example.com");
+        when(summary.getUserName()).thenReturn(userName);
+        when(summary.getUserType()).thenReturn("USER");
+        when(summary.getCountry()).thenReturn("India");
+        when(summary.getUserIsActive()).thenReturn(true);
+        when(summary.getUserCreatedOn()).thenReturn(new Date(0));
+        return summary;
+    }
+}
@@ -0,0 +1,155 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.user_management.model.User;
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.service.serviceImpl.PasswordHashingService;
+import com.mykare.user_management.service.serviceImpl.UserImportService;
+import com.mykare.user_management.service.serviceImpl.UserSearchIndex;
+import com.mykare.user_management.webModel.ImportReport;
+import com.mykare.user_management.webModel.ImportRowResult;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @InjectMocks
+    private UserImportService userImportService;
+
+    private int nextId = 100;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(userImportService, "hashThreads", 2);
+        ReflectionTestUtils.setField(userImportService, "hashQueueCapacity", 10);
+        userImportService.start();
+
+        lenient().when(passwordHashingService.encodeDirect(any()))
+                .thenAnswer(invocation -> "$2a$04$hashed-" + invocation.getArgument(0));
+
+        lenient().when(userRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setUserId(nextId++));
+            return users;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.stop();
+    }
+
+    @Test
+    void testImportUsers_CsvReportsEveryRow() throws Exception {
+        String csv = "emailId,password,userName,userType\r\n"
+                + "a@example.com,secret,\"Doe, Jane\",USER\r\n"
+                + "b@example.com,secret,Bob,USER\r\n"
+                + "a@example.com,secret,Again,USER\r\n"
+                + "c@example.com,,NoPassword,USER\r\n"
+                + "taken@example.com,secret,Taken,USER\r\n";
+        when(userRepository.findExistingEmailIds(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of("taken@example.com"));
+
+        ImportReport report = userImportService.importUsers(UserImportService.Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getSkipped());
+        assertEquals(List.of(ImportRowResult.Status.IMPORTED, ImportRowResult.Status.IMPORTED,
+                ImportRowResult.Status.DUPLICATE_IN_FILE, ImportRowResult.Status.INVALID,
+                ImportRowResult.Status.ALREADY_EXISTS),
+                report.getRows().stream().map(ImportRowResult::getStatus).collect(Collectors.toList()));
+        assertEquals(100, report.getRows().get(0).getUserId());
+        verify(userRepository, times(1)).saveAll(anyIterable());
+        verify(userSearchIndex, times(1)).add(100, "Doe, Jane", "a@example.com");
+        verify(userSearchIndex, times(1)).add(101, "Bob", "b@example.com");
+    }
+
+    @Test
+    void testImportUsers_JsonArrayHashesPasswords() throws Exception {
+        String json = "[{\"emailId\":\"a@example.com\",\"password\":\"secret\",\"userType\":\"USER\"}]";
+        when(userRepository.findExistingEmailIds(anyCollection())).thenReturn(List.of());
+
+        ImportReport report = userImportService.importUsers(UserImportService.Format.JSON,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.getImported());
+        verify(userRepository).saveAll(argThat((Iterable<User> users) -> {
+            User user = users.iterator().next();
+            return user.getPassword().startsWith("$2") && user.getTokenVersion() == 0;
+        }));
+    }
+
+    @Test
+    void testImportUsers_FailedChunkIsReportedPerRow() throws Exception {
+        String ndjson = "{\"emailId\":\"a@example.com\",\"password\":\"secret\"}\n"
+                + "{\"emailId\":\"b@example.com\",\"password\":\"secret\"}\n";
+        when(userRepository.findExistingEmailIds(anyCollection())).thenReturn(List.of());
+        doThrow(new IllegalStateException("constraint violation")).when(userRepository).saveAll(anyIterable());
+
+        ImportReport report = userImportService.importUsers(UserImportService.Format.JSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, report.getFailed());
+        assertEquals(0, report.getImported());
+    }
+
+    @Test
+    void testImportUsers_HashFailureFailsOnlyThatRow() throws Exception {
+        String ndjson = "{\"emailId\":\"a@example.com\",\"password\":\"secret\"}\n"
+                + "{\"emailId\":\"b@example.com\",\"password\":\"broken\"}\n";
+        when(userRepository.findExistingEmailIds(anyCollection())).thenReturn(List.of());
+        when(passwordHashingService.encodeDirect("broken")).thenThrow(new IllegalArgumentException("bad salt"));
+
+        ImportReport report = userImportService.importUsers(UserImportService.Format.JSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        ImportRowResult failed = report.getRows().stream()
+                .filter(row -> row.getStatus() == ImportRowResult.Status.FAILED).findFirst().get();
+        assertEquals("b@example.com", failed.getEmailId());
+        verify(userRepository).saveAll(argThat((Iterable<User> users) -> {
+            List<User> saved = new ArrayList<>();
+            users.forEach(saved::add);
+            return saved.size() == 1 && saved.get(0).getEmailId().equals("a@example.com");
+        }));
+        verify(userSearchIndex, times(1)).add(100, null, "a@example.com");
+    }
+}
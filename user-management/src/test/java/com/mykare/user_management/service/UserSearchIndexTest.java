@@ -0,0 +1,150 @@
+package com.mykare.user_management.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.service.serviceImpl.UserSearchIndex;
+import com.mykare.user_management.webModel.UserSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserSearchIndexTest {
+
+    private UserSearchIndex userSearchIndex;
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userSearchIndex = new UserSearchIndex();
+        ReflectionTestUtils.setField(userSearchIndex, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userSearchIndex, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(userSearchIndex, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userSearchIndex, "enabled", true);
+        ReflectionTestUtils.setField(userSearchIndex, "compactRatio", 0.25);
+        userSearchIndex.init();
+
+        Stream<UserSummary> users = Stream.of(
+                summary(1, "John Smith", "john.smith@example.com"),
+                summary(2, "Johnny Cash", "cash@example.com"),
+                summary(3, "Ajohnson", "aj@example.com"),
+                summary(4, "Mary Jones", "mjohn@example.com"),
+                summary(5, "John", "x@example.com"));
+        when(userRepository.streamAllSummaries()).thenReturn(users);
+    }
+
+    @Test
+    void testSearch_RanksExactThenPrefixThenSubstring() {
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+
+        UserSearchIndex.Hits hits = userSearchIndex.search(" JOHN ", 0, 10);
+
+        assertArrayEquals(new int[] { 5, 1, 2, 3, 4 }, hits.getUserIds());
+        assertEquals(5, hits.getTotal());
+    }
+
+    @Test
+    void testSearch_ShortQueriesMatchWordPrefixesOnly() {
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+
+        assertArrayEquals(new int[] { 1 }, userSearchIndex.search("sm", 0, 10).getUserIds());
+        assertArrayEquals(new int[] { 4 }, userSearchIndex.search("m", 0, 10).getUserIds());
+        assertEquals(0, userSearchIndex.search("oh", 0, 10).getTotal());
+    }
+
+    @Test
+    void testSearch_PagesThroughTiesByFieldLengthThenUserId() {
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+
+        UserSearchIndex.Hits hits = userSearchIndex.search("example", 2, 2);
+
+        // Every email matches after '@'; shorter emails rank first: 5, 3, 2, 4, 1
+        assertArrayEquals(new int[] { 2, 4 }, hits.getUserIds());
+        assertEquals(5, hits.getTotal());
+    }
+
+    @Test
+    void testAddAndRemove_UpdateTheIndexIncludingDuringLoad() {
+        assertNull(userSearchIndex.search("john", 0, 10));
+
+        // Removed before the load reads the row, so the row must not come back
+        userSearchIndex.remove(1);
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+        assertEquals(0, userSearchIndex.search("smith", 0, 10).getTotal());
+
+        userSearchIndex.add(6, "Smithers", "s@example.com");
+        userSearchIndex.add(5, "Zed", "x@example.com");
+        assertArrayEquals(new int[] { 6 }, userSearchIndex.search("smith", 0, 10).getUserIds());
+        assertArrayEquals(new int[] { 2, 3, 4 }, userSearchIndex.search("john", 0, 10).getUserIds());
+    }
+
+    @Test
+    void testAddAndRemove_ManyUsers() {
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+        for (int userId = 100; userId < 5100; userId++) {
+            userSearchIndex.add(userId, "Member " + userId, "member" + userId + "@example.org");
+        }
+        for (int userId = 100; userId < 5100; userId += 2) {
+            userSearchIndex.remove(userId);
+        }
+
+        assertEquals(2500, userSearchIndex.search("member", 0, 10).getTotal());
+        assertArrayEquals(new int[] { 4321 }, userSearchIndex.search("member 4321", 0, 10).getUserIds());
+        assertEquals(0, userSearchIndex.search("member 4320", 0, 10).getTotal());
+    }
+
+    @Test
+    void testCompact_DropsRemovedUsersAndKeepsResults() {
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+        for (int userId = 100; userId < 2100; userId++) {
+            userSearchIndex.add(userId, "Member " + userId, "member" + userId + "@example.org");
+        }
+        for (int userId = 100; userId < 1600; userId++) {
+            userSearchIndex.remove(userId);
+        }
+        assertEquals(1500, (int) ReflectionTestUtils.invokeMethod(userSearchIndex, "removedCount"));
+
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "compact");
+
+        assertEquals(0, (int) ReflectionTestUtils.invokeMethod(userSearchIndex, "removedCount"));
+        assertEquals(505, (int) ReflectionTestUtils.invokeMethod(userSearchIndex, "size"));
+        assertEquals(500, userSearchIndex.search("member", 0, 10).getTotal());
+        assertArrayEquals(new int[] { 1999 }, userSearchIndex.search("member 1999", 0, 10).getUserIds());
+        assertArrayEquals(new int[] { 5, 1, 2, 3, 4 }, userSearchIndex.search("john", 0, 10).getUserIds());
+    }
+
+    @Test
+    void testLoad_RebuildPicksUpOtherInstancesAndKeepsChangesMadeMeanwhile() {
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+
+        // User 2 was deleted and user 7 registered elsewhere; user 8 registers here while the table is read
+        Stream<UserSummary> users = Stream.of(
+                summary(1, "John Smith", "john.smith@example.com"),
+                summary(7, "Remote John", "remote@example.com"));
+        when(userRepository.streamAllSummaries()).thenAnswer(invocation -> {
+            userSearchIndex.add(8, "Local Johnson", "local@example.com");
+            return users;
+        });
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "load");
+
+        assertArrayEquals(new int[] { 1, 7, 8 }, userSearchIndex.search("john", 0, 10).getUserIds());
+        assertEquals(0, userSearchIndex.search("cash", 0, 10).getTotal());
+    }
+
+    private static UserSummary summary(Integer userId, String userName, String emailId) {
+        UserSummary summary = mock(UserSummary.class);
+        when(summary.getUserId()).thenReturn(userId);
+        when(summary.getUserName()).thenReturn(userName);
+        when(summary.getEmailId()).thenReturn(emailId);
+        return summary;
+    }
+}
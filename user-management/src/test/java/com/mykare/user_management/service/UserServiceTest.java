@@ -1,6 +1,7 @@
 package com.mykare.user_management.service;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,13 +13,30 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.mykare.user_management.Response;
 import com.mykare.user_management.model.User;
 import com.mykare.user_management.repository.UserRepository;
+import com.mykare.user_management.security.UserDetailsImpl;
+import com.mykare.user_management.security.jwt.JwtResponse;
+import com.mykare.user_management.security.jwt.JwtUtils;
+import com.mykare.user_management.security.jwt.RefreshTokenStore;
+import com.mykare.user_management.security.jwt.TokenRevocationList;
+import com.mykare.user_management.security.jwt.VerifiedJwt;
+import com.mykare.user_management.service.serviceImpl.CountryEnrichmentService;
+import com.mykare.user_management.service.serviceImpl.UserSearchIndex;
+import com.mykare.user_management.service.serviceImpl.UserServiceImpl;
+import com.mykare.user_management.webModel.UserPage;
+import com.mykare.user_management.webModel.UserSearchPage;
+import com.mykare.user_management.webModel.UserSummary;
 import com.mykare.user_management.webModel.UserWebModel;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -29,10 +47,25 @@ public class UserServiceTest {
     private UserRepository userRepository;
     
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private CountryEnrichmentService countryEnrichmentService;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
 
     @InjectMocks
-    private UserService userService;
+    private UserServiceImpl userService;
 
     private User adminUser;
     private User normalUser;
@@ -40,6 +73,9 @@ public class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(userService, "meterRegistry", new SimpleMeterRegistry());
+        userService.init();
+
         // Create an Admin User
         adminUser = new User();
         adminUser.setUserId(1);
@@ -62,10 +98,9 @@ public class UserServiceTest {
 
     @Test
     void testGetAllUsers_Success_AdminUser() {
-        when(userRepository.findByEmailId("admin@example.com")).thenReturn(Optional.of(adminUser));
         when(userRepository.findAll()).thenReturn(userList);
 
-        ResponseEntity<?> response = userService.getAllUsers("admin@example.com");
+        ResponseEntity<?> response = userService.getAllUsers(UserDetailsImpl.build(adminUser));
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -80,9 +115,7 @@ public class UserServiceTest {
 
     @Test
     void testGetAllUsers_Failure_NonAdminUser() {
-        when(userRepository.findByEmailId("user@example.com")).thenReturn(Optional.of(normalUser));
-
-        ResponseEntity<?> response = userService.getAllUsers("user@example.com");
+        ResponseEntity<?> response = userService.getAllUsers(UserDetailsImpl.build(normalUser));
 
         assertNotNull(response);
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -96,9 +129,7 @@ public class UserServiceTest {
 
     @Test
     void testGetAllUsers_Failure_UserNotFound() {
-        when(userRepository.findByEmailId("unknown@example.com")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = userService.getAllUsers("unknown@example.com");
+        ResponseEntity<?> response = userService.getAllUsers(null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -112,18 +143,12 @@ public class UserServiceTest {
 
     @Test
     void testGetAllUsers_ExceptionHandling() {
-        when(userRepository.findByEmailId("admin@example.com")).thenThrow(new RuntimeException("Database error"));
+        when(userRepository.findAll()).thenThrow(new RuntimeException("Database error"));
 
-        ResponseEntity<?> response = userService.getAllUsers("admin@example.com");
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> userService.getAllUsers(UserDetailsImpl.build(adminUser)));
 
-        assertNotNull(response);
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        assertTrue(response.getBody() instanceof Response);
-
-        Response responseBody = (Response) response.getBody();
-        assertEquals(-1, responseBody.getStatus());
-        assertEquals("Fail", responseBody.getMessage());
-        assertEquals("An error occurred while fetching users.", responseBody.getData());
+        assertEquals("Database error", exception.getMessage());
     }
 
     @Test
@@ -142,14 +167,16 @@ public class UserServiceTest {
         userToDelete.setEmailId("user1@example.com");
         userToDelete.setUserType("USER");
 
-        when(userRepository.findByEmailId(adminEmail)).thenReturn(Optional.of(adminUser));
         when(userRepository.findById(userId)).thenReturn(Optional.of(userToDelete));
 
-        ResponseEntity<?> response = userService.deleteUserDetails(userId, adminEmail);
+        ResponseEntity<?> response = userService.deleteUserDetails(userId, UserDetailsImpl.build(adminUser));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, ((Response) response.getBody()).getStatus());
         verify(userRepository, times(1)).delete(userToDelete);
+        verify(tokenRevocationList, times(1)).revokeAll(userId);
+        verify(refreshTokenStore, times(1)).revokeAll(userId);
+        verify(userSearchIndex, times(1)).remove(userId);
     }
 
     @Test
@@ -162,12 +189,10 @@ public class UserServiceTest {
         nonAdminUser.setEmailId(nonAdminEmail);
         nonAdminUser.setUserType("USER");
 
-        when(userRepository.findByEmailId(nonAdminEmail)).thenReturn(Optional.of(nonAdminUser));
-
-        ResponseEntity<?> response = userService.deleteUserDetails(userId, nonAdminEmail);
+        ResponseEntity<?> response = userService.deleteUserDetails(userId, UserDetailsImpl.build(nonAdminUser));
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertEquals("Access denied. Only admin users can delete accounts.", ((Response) response.getBody()).getMessage());
+        assertEquals("Access denied. Only admin users can delete accounts.", ((Response) response.getBody()).getData());
         verify(userRepository, never()).delete(any());
     }
 
@@ -181,13 +206,12 @@ public class UserServiceTest {
         adminUser.setEmailId(adminEmail);
         adminUser.setUserType("ADMIN");
 
-        when(userRepository.findByEmailId(adminEmail)).thenReturn(Optional.of(adminUser));
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userService.deleteUserDetails(userId, adminEmail);
+        ResponseEntity<?> response = userService.deleteUserDetails(userId, UserDetailsImpl.build(adminUser));
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        assertEquals("User not found.", ((Response) response.getBody()).getMessage());
+        assertEquals("User not found.", ((Response) response.getBody()).getData());
         verify(userRepository, never()).delete(any());
     }
 
@@ -201,11 +225,10 @@ public class UserServiceTest {
         adminUser.setEmailId(adminEmail);
         adminUser.setUserType("ADMIN");
 
-        when(userRepository.findByEmailId(adminEmail)).thenReturn(Optional.of(adminUser));
         when(userRepository.findById(userId)).thenThrow(new RuntimeException("Database error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, 
-            () -> userService.deleteUserDetails(userId, adminEmail));
+            () -> userService.deleteUserDetails(userId, UserDetailsImpl.build(adminUser)));
 
         assertEquals("Database error", exception.getMessage());
     }
@@ -221,7 +244,6 @@ public class UserServiceTest {
 
         String ipAddress = "192.168.1.1";
 
-        when(userRepository.findByEmailId("newuser@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
 
         ResponseEntity<?> response = userService.register(newUserWebModel, ipAddress);
@@ -235,7 +257,9 @@ public class UserServiceTest {
         assertEquals("success", responseBody.getMessage());
         assertEquals("User registered successfully!", responseBody.getData());
 
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(argThat((User user) -> "encodedPassword".equals(user.getPassword())));
+        verify(countryEnrichmentService, times(1)).enqueue(any(), eq(ipAddress));
+        verify(userSearchIndex, times(1)).add(any(), eq("New User"), eq("newuser@example.com"));
     }
 
     @Test
@@ -250,8 +274,9 @@ public class UserServiceTest {
 
         String ipAddress = "192.168.1.1";  // Add this missing parameter
 
-        // Mock repository to return existing user
-        when(userRepository.findByEmailId("user@example.com")).thenReturn(Optional.of(normalUser));
+        // The unique index on the normalized email rejects the insert
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("ux_users_email_id_normalized"));
 
         // Execute method with ipAddress
         ResponseEntity<?> response = userService.register(existingUserWebModel, ipAddress);
@@ -266,8 +291,136 @@ public class UserServiceTest {
         assertEquals("fail", responseBody.getMessage());
         assertEquals("Email already in use. Please use a different email.", responseBody.getData());
 
-        // Verify save was never called
-        verify(userRepository, never()).save(any(User.class));
+        verify(countryEnrichmentService, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void testGetUsersPage_ReturnsNextCursorWhenMoreRowsExist() {
+        ReflectionTestUtils.setField(userService, "maxPageSize", 500);
+        UserSummary first = summary(11);
+        UserSummary second = summary(12);
+        UserSummary third = summary(13);
+        when(userRepository.findPageAfter(10, "USER", null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(first, second, third));
+
+        ResponseEntity<?> response = userService.getUsersPage(UserDetailsImpl.build(adminUser), 10, 2, "USER", null, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        UserPage page = (UserPage) ((Response) response.getBody()).getData();
+        assertEquals(Arrays.asList(first, second), page.getItems());
+        assertEquals(12, page.getNextCursor());
+    }
+
+    @Test
+    void testGetUsersPage_LastPageHasNoCursor() {
+        ReflectionTestUtils.setField(userService, "maxPageSize", 500);
+        UserSummary only = summary(1);
+        when(userRepository.findPageAfter(0, null, "India", null, null, PageRequest.of(0, 6)))
+                .thenReturn(Arrays.asList(only));
+
+        ResponseEntity<?> response = userService.getUsersPage(UserDetailsImpl.build(adminUser), null, 5, null, "India", null, null);
+
+        UserPage page = (UserPage) ((Response) response.getBody()).getData();
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetUsersPage_Failure_NonAdminUser() {
+        ResponseEntity<?> response = userService.getUsersPage(UserDetailsImpl.build(normalUser), null, 10, null, null, null, null);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(userRepository, never()).findPageAfter(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testRefreshToken_RotatesWithoutPasswordCheck() {
+        when(refreshTokenStore.redeem("old-refresh-token")).thenReturn(2);
+        when(userRepository.findById(2)).thenReturn(Optional.of(normalUser));
+        when(jwtUtils.generateJwtTokenForRefreshToken(normalUser)).thenReturn("new-jwt");
+        when(refreshTokenStore.issue(2)).thenReturn("new-refresh-token");
+
+        ResponseEntity<?> response = userService.refreshToken("old-refresh-token");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JwtResponse body = (JwtResponse) response.getBody();
+        assertEquals("new-jwt", body.getJwt());
+        assertEquals("new-refresh-token", body.getRefreshToken());
+        assertEquals(2, body.getId());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void testRefreshToken_Failure_RedeemedOrUnknownToken() {
+        when(refreshTokenStore.redeem("used-refresh-token")).thenReturn(null);
+
+        ResponseEntity<?> response = userService.refreshToken("used-refresh-token");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(refreshTokenStore, never()).issue(any());
+    }
+
+    @Test
+    void testLogout_RevokesAccessAndRefreshToken() {
+        VerifiedJwt verifiedJwt = mock(VerifiedJwt.class);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        when(verifiedJwt.getTokenId()).thenReturn("token-id");
+        when(verifiedJwt.getExpiration()).thenReturn(expiration);
+        when(jwtUtils.verifyJwtToken("jwt")).thenReturn(verifiedJwt);
+
+        ResponseEntity<?> response = userService.logout("jwt", "refresh-token");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(tokenRevocationList, times(1)).revoke("token-id", expiration.getTime());
+        verify(refreshTokenStore, times(1)).redeem("refresh-token");
+    }
+
+    @Test
+    void testLogout_Failure_InvalidToken() {
+        when(jwtUtils.verifyJwtToken("bad-jwt")).thenReturn(null);
+
+        ResponseEntity<?> response = userService.logout("bad-jwt", null);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(tokenRevocationList, refreshTokenStore);
+    }
+
+    @Test
+    void testSearchUsers_KeepsRankOrderAndSkipsDeletedUsers() {
+        ReflectionTestUtils.setField(userService, "defaultPageSize", 3);
+        ReflectionTestUtils.setField(userService, "maxPageSize", 500);
+        when(userSearchIndex.search("jo", 0, 3)).thenReturn(new UserSearchIndex.Hits(new int[] { 7, 3, 5 }, 10));
+        UserSummary third = summary(3);
+        UserSummary seventh = summary(7);
+        // User 5 was deleted after the index answered
+        when(userRepository.findSummariesByUserIdIn(List.of(7, 3, 5))).thenReturn(List.of(third, seventh));
+
+        ResponseEntity<?> response = userService.searchUsers(UserDetailsImpl.build(adminUser), "jo", null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        UserSearchPage page = (UserSearchPage) ((Response) response.getBody()).getData();
+        assertEquals(List.of(seventh, third), page.getItems());
+        assertEquals(10, page.getTotal());
+        assertEquals(3, page.getNextOffset());
+    }
+
+    @Test
+    void testSearchUsers_Failure_NonAdminUserOrIndexLoading() {
+        ReflectionTestUtils.setField(userService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(userService, "maxPageSize", 500);
+        ResponseEntity<?> forbidden = userService.searchUsers(UserDetailsImpl.build(normalUser), "jo", 0, 10);
+        assertEquals(HttpStatus.FORBIDDEN, forbidden.getStatusCode());
+        verifyNoInteractions(userSearchIndex);
+
+        when(userSearchIndex.search("jo", 0, 10)).thenReturn(null);
+        ResponseEntity<?> loading = userService.searchUsers(UserDetailsImpl.build(adminUser), "jo", 0, 10);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, loading.getStatusCode());
+    }
+
+    private static UserSummary summary(Integer userId) {
+        UserSummary summary = mock(UserSummary.class);
+        lenient().when(summary.getUserId()).thenReturn(userId);
+        return summary;
     }
 
 }
@@ -0,0 +1,39 @@
+package com.mykare.user_management.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mykare.user_management.Response;
+import com.mykare.user_management.model.User;
+
+public class LogSummariesTest {
+
+    @Test
+    void testSummarize_RendersResponseWithCollectionSizesOnly() {
+        List<User> users = new ArrayList<>(Collections.nCopies(1500, new User()));
+
+        String summary = LogSummaries.summarize(new Response(1, "Success", users)).toString();
+
+        assertEquals("{status=1, message=Success, data=ArrayList(size=1500)}", summary);
+    }
+
+    @Test
+    void testSummarize_TruncatesLongTextAndHidesObjects() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append('x');
+        }
+
+        String summary = LogSummaries.summarize(new Response(-1, "Fail", text.toString())).toString();
+
+        assertTrue(summary.endsWith("...(500 chars)}"));
+        assertTrue(summary.length() < LogSummaries.MAX_TEXT_LENGTH + 64);
+        assertEquals("User", LogSummaries.summarize(new User()).toString());
+        assertEquals("null", LogSummaries.summarize(null).toString());
+    }
+}